@@ -0,0 +1,74 @@
+package com.siopa.orders.benchmarks;
+
+import com.siopa.orders.dto.OrderItemRequest;
+import com.siopa.orders.dto.OrderRequest;
+import com.siopa.orders.models.EStatus;
+import com.siopa.orders.models.Order;
+import com.siopa.orders.models.UuidV7Generator;
+import com.siopa.orders.services.OrderMapper;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Builds representative order fixtures for the benchmarks.
+ */
+final class BenchmarkOrders {
+
+    private BenchmarkOrders() {
+    }
+
+    /**
+     * Creates an order request with the given number of items.
+     *
+     * @param itemCount the number of order items
+     * @return the order request
+     */
+    static OrderRequest request(int itemCount) {
+        OrderRequest request = new OrderRequest();
+        request.setCustomerID("customer-42");
+        request.setCustomerEmail("customer42@example.com");
+        request.setForename("Siobhan");
+        request.setSurname("Kelly");
+        request.setPhoneNumber("07700900123");
+        request.setStoreID("store-7");
+        request.setDelivery(true);
+        request.setDeliveryFee(new BigDecimal("2.50"));
+        request.setDeliveryAddress("1 Main Street, Belfast");
+        request.setBillingAddress("1 Main Street, Belfast");
+        request.setCustomerLat(54.5973);
+        request.setCustomerLng(-5.9301);
+        List<OrderItemRequest> items = new ArrayList<>(itemCount);
+        for (int i = 0; i < itemCount; i++) {
+            OrderItemRequest item = new OrderItemRequest();
+            item.setProductId("product-" + i);
+            item.setProductName("Product " + i);
+            item.setQuantity(1 + i % 3);
+            item.setPrice(new BigDecimal("1.99"));
+            items.add(item);
+        }
+        request.setOrderItems(items);
+        request.setTotalItemCost(new BigDecimal("1.99").multiply(BigDecimal.valueOf(itemCount)));
+        request.setTotalCost(request.getTotalItemCost().add(request.getDeliveryFee()));
+        return request;
+    }
+
+    /**
+     * Creates an order as it looks after being saved, with generated IDs and timestamps.
+     *
+     * @param itemCount the number of order items
+     * @return the order
+     */
+    static Order persistedOrder(int itemCount) {
+        Order order = OrderMapper.toOrder(request(itemCount));
+        Date now = new Date();
+        order.setOrderId(UuidV7Generator.next().toString());
+        order.setStatus(EStatus.SUBMITTED);
+        order.setCrtdTimeStamp(now);
+        order.setUptdTimeStamp(now);
+        order.getOrderItems().forEach(item -> item.setOrderItemId(UuidV7Generator.next().toString()));
+        return order;
+    }
+}
@@ -0,0 +1,61 @@
+package com.siopa.orders.benchmarks;
+
+import com.siopa.orders.dto.OrderRequest;
+import com.siopa.orders.models.Order;
+import com.siopa.orders.models.OrderOutbox;
+import com.siopa.orders.services.OrderMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the request-to-entity mapping done by {@code OrderService.createOrder}:
+ * building the order and its items, and deriving the outbox entries.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class OrderMappingBenchmark {
+
+    @Param({"1", "10", "100"})
+    private int itemCount;
+
+    private OrderRequest request;
+
+    private Order order;
+
+    @Setup
+    public void setUp() {
+        request = BenchmarkOrders.request(itemCount);
+        order = BenchmarkOrders.persistedOrder(itemCount);
+    }
+
+    @Benchmark
+    public String validate() {
+        return OrderMapper.validate(request);
+    }
+
+    @Benchmark
+    public Order toOrder() {
+        return OrderMapper.toOrder(request);
+    }
+
+    @Benchmark
+    public List<OrderOutbox> toOutboxEntries() {
+        return OrderMapper.toOutboxEntries(order);
+    }
+}
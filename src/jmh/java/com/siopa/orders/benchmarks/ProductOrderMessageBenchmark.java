@@ -0,0 +1,96 @@
+package com.siopa.orders.benchmarks;
+
+import com.siopa.orders.kafka.BinaryProductOrderSerializer;
+import com.siopa.orders.kafka.JsonProductOrderSerializer;
+import com.siopa.orders.kafka.ProductOrderMessage;
+import com.siopa.orders.kafka.ProductOrderSerializer;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the encodings of the inventory messages sent by {@code OrderProducer}: the JSON
+ * compatibility mode, which writes one record per message, and the binary envelope, which writes
+ * one record per partition. Each operation encodes all messages of an outbox batch.
+ * <p>
+ * Alongside ns/op, the {@code bytes} counter reports the encoded size; divide it by the
+ * {@code messages} counter of the same run for the bytes per message.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class ProductOrderMessageBenchmark {
+
+    @Param({"json", "binary"})
+    private String format;
+
+    @Param({"1", "100"})
+    private int messageCount;
+
+    private ProductOrderSerializer serializer;
+
+    private List<ProductOrderMessage> messages;
+
+    /**
+     * Encoded bytes and messages, reported as totals per iteration.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Size {
+
+        public long bytes;
+
+        public long messages;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            bytes = 0;
+            messages = 0;
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        serializer = format.equals("binary")
+                ? new BinaryProductOrderSerializer(500)
+                : new JsonProductOrderSerializer(Jackson2ObjectMapperBuilder.json().build());
+        messages = new ArrayList<>(messageCount);
+        for (int i = 0; i < messageCount; i++) {
+            messages.add(new ProductOrderMessage(UUID.randomUUID().toString(), 1 + i % 5));
+        }
+    }
+
+    @Benchmark
+    public int serialize(Size size) {
+        int bytes = 0;
+        if (serializer.maxMessagesPerRecord() > 1) {
+            bytes = serializer.serialize(messages).length;
+        } else {
+            for (ProductOrderMessage message : messages) {
+                bytes += serializer.serialize(List.of(message)).length;
+            }
+        }
+        size.bytes += bytes;
+        size.messages += messages.size();
+        return bytes;
+    }
+}
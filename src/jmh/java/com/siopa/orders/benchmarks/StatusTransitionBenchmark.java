@@ -0,0 +1,47 @@
+package com.siopa.orders.benchmarks;
+
+import com.siopa.orders.models.EStatus;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures validation of order status transitions against the {@link EStatus} state machine.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class StatusTransitionBenchmark {
+
+    private final EStatus[] statuses = EStatus.values();
+
+    /**
+     * Checks every (from, to) pair, so the result covers both allowed and rejected transitions.
+     */
+    @Benchmark
+    public void canTransitionTo(Blackhole blackhole) {
+        for (EStatus from : statuses) {
+            for (EStatus to : statuses) {
+                blackhole.consume(from.canTransitionTo(to));
+            }
+        }
+    }
+
+    @Benchmark
+    public Set<EStatus> previousStatuses() {
+        return EStatus.COMPLETE.previousStatuses();
+    }
+}
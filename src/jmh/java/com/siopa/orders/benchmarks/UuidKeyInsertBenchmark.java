@@ -0,0 +1,93 @@
+package com.siopa.orders.benchmarks;
+
+import com.siopa.orders.models.UuidV7Generator;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Insert-throughput benchmark comparing order key layouts on PostgreSQL:
+ * random version 4 keys in a varchar column (the default layout), version 7 keys in a varchar
+ * column, and version 7 keys in a native uuid column (the layout produced by db/native-uuid-keys.sql).
+ * <p>
+ * Unlike the JMH benchmarks next to it, this is a standalone program, because it needs a real
+ * PostgreSQL server. Compile it with the {@code jmh} profile and run it against a scratch database:
+ * <pre>
+ * mvn -Pjmh compile
+ * java -cp target/classes:&lt;postgresql.jar&gt; \
+ *     com.siopa.orders.benchmarks.UuidKeyInsertBenchmark jdbc:postgresql://localhost/bench user password 2000000
+ * </pre>
+ * Each layout gets its own unlogged table, primary key and secondary index, mirroring
+ * orders(order_id, storeid). Rows/second and final index sizes are printed for each.
+ */
+public final class UuidKeyInsertBenchmark {
+
+    private static final int BATCH_SIZE = 500;
+
+    private UuidKeyInsertBenchmark() {
+    }
+
+    public static void main(String[] args) throws SQLException {
+        if (args.length < 3) {
+            System.err.println("Usage: UuidKeyInsertBenchmark <jdbc-url> <user> <password> [rows]");
+            System.exit(1);
+        }
+        int rows = args.length > 3 ? Integer.parseInt(args[3]) : 1_000_000;
+
+        try (Connection connection = DriverManager.getConnection(args[0], args[1], args[2])) {
+            connection.setAutoCommit(false);
+            run(connection, "varchar_v4", "varchar(36)", rows, () -> UUID.randomUUID().toString());
+            run(connection, "varchar_v7", "varchar(36)", rows, () -> UuidV7Generator.next().toString());
+            run(connection, "uuid_v7", "uuid", rows, UuidV7Generator::next);
+        }
+    }
+
+    private static void run(Connection connection, String name, String keyType, int rows,
+                            Supplier<Object> keys) throws SQLException {
+        String table = "bench_orders_" + name;
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS " + table);
+            statement.execute("CREATE UNLOGGED TABLE " + table + " (order_id " + keyType + " PRIMARY KEY, "
+                    + "storeid " + keyType + " NOT NULL, total_cost numeric(10, 2) NOT NULL)");
+            statement.execute("CREATE INDEX ON " + table + " (storeid)");
+        }
+        connection.commit();
+
+        Object store = keys.get();
+        long start = System.nanoTime();
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO " + table + " (order_id, storeid, total_cost) VALUES (?, ?, 10.00)")) {
+            for (int i = 1; i <= rows; i++) {
+                insert.setObject(1, keys.get());
+                insert.setObject(2, store);
+                insert.addBatch();
+                if (i % BATCH_SIZE == 0) {
+                    insert.executeBatch();
+                    connection.commit();
+                }
+            }
+            insert.executeBatch();
+            connection.commit();
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        try (Statement statement = connection.createStatement();
+             ResultSet sizes = statement.executeQuery("SELECT pg_relation_size('" + table + "_pkey'), "
+                     + "pg_indexes_size('" + table + "')")) {
+            sizes.next();
+            System.out.printf("%-11s %,12.0f rows/s  pkey %,8d KiB  all indexes %,8d KiB%n",
+                    name, rows / seconds, sizes.getLong(1) / 1024, sizes.getLong(2) / 1024);
+        }
+
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE " + table);
+        }
+        connection.commit();
+    }
+}
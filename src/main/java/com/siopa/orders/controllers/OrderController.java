@@ -1,13 +1,39 @@
 package com.siopa.orders.controllers;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.siopa.orders.dto.BatchOrderResult;
+import com.siopa.orders.dto.BulkStatusUpdateRequest;
+import com.siopa.orders.dto.CursorPage;
+import com.siopa.orders.dto.NearbyOrder;
 import com.siopa.orders.dto.OrderRequest;
+import com.siopa.orders.dto.OrderSummary;
+import com.siopa.orders.dto.RollupBucket;
+import com.siopa.orders.dto.StatusCount;
+import com.siopa.orders.dto.StatusUpdateResult;
+import com.siopa.orders.models.ERollupGranularity;
 import com.siopa.orders.models.EStatus;
 import com.siopa.orders.models.Order;
+import com.siopa.orders.services.DeliveryOrderIndex;
+import com.siopa.orders.services.OrderETags;
+import com.siopa.orders.services.OrderRollups;
 import com.siopa.orders.services.OrderService;
+import com.siopa.orders.services.OrderStreamHub;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.List;
+import java.util.Set;
 
 /**
  * REST controller for managing orders.
@@ -17,39 +43,268 @@ import java.util.List;
 @RequestMapping("/api/orders")
 public class OrderController {
 
+    private static final String APPLICATION_NDJSON_VALUE = "application/x-ndjson";
+
+    private static final int MAX_BATCH_SIZE = 1000;
+
+    private static final double MAX_NEARBY_RADIUS_KM = 50;
+
+    private static final int MAX_NEAREST = 100;
+
+    private static final int MAX_STATS_BUCKETS = 1000;
+
     @Autowired
     private OrderService orderService;
 
+    @Autowired
+    private OrderStreamHub orderStreamHub;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private DeliveryOrderIndex deliveryOrderIndex;
+
+    @Autowired
+    private OrderRollups orderRollups;
+
     /**
-     * Retrieves all orders.
+     * Retrieves a page of orders using keyset pagination.
+     * With {@code view=summary} or {@code fields=...} only the requested columns are read and returned.
+     * The full view carries an ETag built from the orders' versions; a matching {@code If-None-Match}
+     * is answered with 304 and no body.
      *
-     * @return a list of all orders
+     * @param after  the cursor returned with the previous page; omit for the first page
+     * @param limit  the maximum number of orders to return
+     * @param view   {@code full} (the default) or {@code summary}
+     * @param fields the fields to return, as a comma-separated list; the order ID is always included
+     * @return the page of orders and the cursor for the next page
      */
     @GetMapping
-    public List<Order> getAllOrders() {
-        return orderService.getAllOrders();
+    public ResponseEntity<CursorPage<?>> getAllOrders(@RequestParam(required = false) String after,
+                                                      @RequestParam(defaultValue = "100") int limit,
+                                                      @RequestParam(required = false) String view,
+                                                      @RequestParam(required = false) List<String> fields) {
+        if (fields != null) {
+            requireFullView(view);
+            return ResponseEntity.ok(orderService.getOrderFields(fields, after, limit));
+        }
+        if (isSummaryView(view)) {
+            return ResponseEntity.ok(orderService.getOrderSummaries(after, limit));
+        }
+        CursorPage<Order> page = orderService.getOrders(after, limit);
+        return ResponseEntity.ok().eTag(OrderETags.ofList(page.getItems(), page.getNextCursor())).body(page);
+    }
+
+    /**
+     * Streams all orders as newline-delimited JSON.
+     * Orders are written to the response as they are read from the database,
+     * so memory use does not depend on the size of the table.
+     *
+     * @return a streaming response body with one order per line
+     */
+    @GetMapping(params = "format=ndjson", produces = APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAllOrders() {
+        StreamingResponseBody body = outputStream -> orderService.streamAllOrders(order -> {
+            try {
+                outputStream.write(objectMapper.writeValueAsBytes(order));
+                outputStream.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to write order " + order.getOrderId(), e);
+            }
+        });
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(APPLICATION_NDJSON_VALUE))
+                .body(body);
+    }
+
+    /**
+     * Streams status changes of every order of a store as server-sent events.
+     *
+     * @param storeId the ID of the store
+     * @return the event stream
+     */
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamStoreOrders(@RequestParam String storeId) {
+        return orderStreamHub.subscribeToStore(storeId);
+    }
+
+    /**
+     * Streams status changes of a single order as server-sent events.
+     *
+     * @param orderId the ID of the order
+     * @return the event stream
+     */
+    @GetMapping(path = "/{orderId}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamOrder(@PathVariable String orderId) {
+        return orderStreamHub.subscribeToOrder(orderId);
     }
 
     /**
      * Retrieves a specific order by its ID.
+     * The response carries an ETag built from the order's version and update timestamp. A matching
+     * {@code If-None-Match} is answered with 304 before the order and its items are loaded.
      *
      * @param orderId the ID of the order
-     * @return the order with the specified ID
+     * @param request the current request, used to evaluate conditional headers
+     * @return the order with the specified ID, or null when the client's copy is current
      */
     @GetMapping("/{orderId}")
-    public Order getOrderById(@PathVariable String orderId) {
-        return orderService.getOrderById(orderId);
+    public Order getOrderById(@PathVariable String orderId, WebRequest request) {
+        String eTag = orderService.getOrderETag(orderId);
+        if (eTag != null && request.checkNotModified(eTag)) {
+            return null;
+        }
+        Order order = orderService.getOrderById(orderId);
+        if (eTag == null && request.checkNotModified(OrderETags.of(order))) {
+            return null;
+        }
+        return order;
+    }
+
+    /**
+     * Retrieves the orders changed since a cursor, oldest change first, for incremental sync.
+     * Consumers keep the returned cursor and poll with it to receive only newer changes.
+     *
+     * @param since the cursor returned with the previous page; omit to start from the beginning
+     * @param limit the maximum number of orders to return
+     * @return the changed orders and the cursor to resume from
+     */
+    @GetMapping("/changes")
+    public CursorPage<Order> getOrderChanges(@RequestParam(required = false) String since,
+                                             @RequestParam(defaultValue = "100") int limit) {
+        return orderService.getOrderChanges(since, limit);
+    }
+
+    /**
+     * Retrieves a page of a customer's order history, newest first.
+     *
+     * @param customerId the ID of the customer
+     * @param before     the cursor returned with the previous page; omit for the first page
+     * @param limit      the maximum number of orders to return
+     * @return the page of order summaries and the cursor for the next page
+     */
+    @GetMapping("/customer/{customerId}")
+    public CursorPage<OrderSummary> getCustomerOrders(@PathVariable String customerId,
+                                                      @RequestParam(required = false) String before,
+                                                      @RequestParam(defaultValue = "" + OrderService.DEFAULT_HISTORY_PAGE_SIZE) int limit) {
+        return orderService.getCustomerOrders(customerId, before, limit);
     }
 
     /**
      * Retrieves all orders with a specific status.
+     * With {@code view=summary} or {@code fields=...} only the requested columns are read and returned.
+     * The full view carries an ETag built from the orders' versions; a matching {@code If-None-Match}
+     * is answered with 304 and no body.
      *
      * @param status the status of the orders to retrieve
+     * @param view   {@code full} (the default) or {@code summary}
+     * @param fields the fields to return, as a comma-separated list; the order ID is always included
      * @return a list of orders with the specified status
      */
     @GetMapping("/status/{status}")
-    public List<Order> getOrdersByStatus(@PathVariable EStatus status) {
-        return orderService.getOrdersByStatus(status);
+    public ResponseEntity<List<?>> getOrdersByStatus(@PathVariable EStatus status,
+                                                     @RequestParam(required = false) String view,
+                                                     @RequestParam(required = false) List<String> fields) {
+        if (fields != null) {
+            requireFullView(view);
+            return ResponseEntity.ok(orderService.getOrderFieldsByStatus(status, fields));
+        }
+        if (isSummaryView(view)) {
+            return ResponseEntity.ok(orderService.getOrderSummariesByStatus(status));
+        }
+        List<Order> orders = orderService.getOrdersByStatus(status);
+        return ResponseEntity.ok().eTag(OrderETags.ofList(orders, null)).body(orders);
+    }
+
+    /**
+     * Counts orders with a specific status without loading them.
+     *
+     * @param status  the status of the orders to count
+     * @param storeId restricts the count to one store; omit for all stores
+     * @return the total count and the count per store
+     */
+    @GetMapping("/status/{status}/count")
+    public StatusCount countOrdersByStatus(@PathVariable EStatus status,
+                                          @RequestParam(required = false) String storeId) {
+        return orderService.countOrdersByStatus(status, storeId);
+    }
+
+    /**
+     * Retrieves revenue and volume per hour or day from the incrementally maintained rollups,
+     * without aggregating over orders. Orders count towards the bucket they were created in.
+     *
+     * @param granularity {@code HOUR} or {@code DAY}
+     * @param from        the start of the range, as an ISO-8601 instant; defaults to 24 hours or 30 days before {@code to}
+     * @param to          the end of the range, exclusive, as an ISO-8601 instant; defaults to now
+     * @param storeId     restricts the figures to one store; omit for the total across stores
+     * @return one bucket per hour or day that has any orders, oldest first
+     */
+    @GetMapping("/stats")
+    public List<RollupBucket> getOrderStats(@RequestParam(defaultValue = "DAY") ERollupGranularity granularity,
+                                            @RequestParam(required = false) Instant from,
+                                            @RequestParam(required = false) Instant to,
+                                            @RequestParam(required = false) String storeId) {
+        Instant end = to != null ? to : Instant.now();
+        Instant start = from != null ? from
+                : end.minus(granularity == ERollupGranularity.HOUR ? Duration.ofHours(24) : Duration.ofDays(30));
+        if (!start.isBefore(end)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "from must be before to");
+        }
+        if (Duration.between(start, end).dividedBy(granularity.width()) >= MAX_STATS_BUCKETS) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "The range may span at most " + MAX_STATS_BUCKETS + " buckets");
+        }
+        return orderRollups.getBuckets(storeId, granularity, start, end);
+    }
+
+    /**
+     * Finds a store's active delivery orders within a distance of a point, nearest first.
+     * Answered from the in-memory {@link DeliveryOrderIndex} without querying the database.
+     *
+     * @param storeId  the store ID
+     * @param lat      the latitude of the point
+     * @param lng      the longitude of the point
+     * @param radiusKm the maximum distance in kilometres, at most {@value #MAX_NEARBY_RADIUS_KM}
+     * @param status   the statuses to include; omit for all active delivery statuses
+     * @return the matching orders with their distance from the point
+     */
+    @GetMapping("/nearby")
+    public List<NearbyOrder> getNearbyOrders(@RequestParam String storeId,
+                                             @RequestParam double lat,
+                                             @RequestParam double lng,
+                                             @RequestParam double radiusKm,
+                                             @RequestParam(required = false) Set<EStatus> status) {
+        requireCoordinates(lat, lng);
+        if (!(radiusKm > 0 && radiusKm <= MAX_NEARBY_RADIUS_KM)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "radiusKm must be greater than 0 and at most " + MAX_NEARBY_RADIUS_KM);
+        }
+        return deliveryOrderIndex.within(storeId, lat, lng, radiusKm, indexedStatuses(status));
+    }
+
+    /**
+     * Finds the store's delivery orders nearest to a point, such as a driver's location.
+     * Answered from the in-memory {@link DeliveryOrderIndex} without querying the database.
+     *
+     * @param storeId the store ID
+     * @param lat     the latitude of the point
+     * @param lng     the longitude of the point
+     * @param k       the maximum number of orders to return, at most {@value #MAX_NEAREST}
+     * @param status  the statuses to include; defaults to orders still being prepared
+     * @return up to {@code k} orders with their distance from the point, nearest first
+     */
+    @GetMapping("/nearest")
+    public List<NearbyOrder> getNearestOrders(@RequestParam String storeId,
+                                              @RequestParam double lat,
+                                              @RequestParam double lng,
+                                              @RequestParam(defaultValue = "10") int k,
+                                              @RequestParam(defaultValue = "PREPARING") Set<EStatus> status) {
+        requireCoordinates(lat, lng);
+        if (k < 1 || k > MAX_NEAREST) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "k must be between 1 and " + MAX_NEAREST);
+        }
+        return deliveryOrderIndex.nearest(storeId, lat, lng, k, indexedStatuses(status));
     }
 
     /**
@@ -63,6 +318,21 @@ public class OrderController {
         return orderService.createOrder(orderRequest);
     }
 
+    /**
+     * Creates a batch of orders in a single transaction.
+     *
+     * @param orderRequests the order details from the request body
+     * @return the outcome of each order, in request order
+     */
+    @PostMapping("/batch")
+    public List<BatchOrderResult> createOrders(@RequestBody List<OrderRequest> orderRequests) {
+        if (orderRequests.size() > MAX_BATCH_SIZE) {
+            throw new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE,
+                    "A batch may contain at most " + MAX_BATCH_SIZE + " orders");
+        }
+        return orderService.createOrders(orderRequests);
+    }
+
     /**
      * Updates the status of an existing order.
      *
@@ -75,6 +345,24 @@ public class OrderController {
         return orderService.updateOrderStatus(orderId, status);
     }
 
+    /**
+     * Moves several orders to the same status at once.
+     *
+     * @param request the IDs of the orders and the status to set
+     * @return the outcome for each order
+     */
+    @PatchMapping("/status")
+    public List<StatusUpdateResult> updateOrderStatuses(@RequestBody BulkStatusUpdateRequest request) {
+        if (request.getStatus() == null || request.getOrderIds() == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "orderIds and status are required");
+        }
+        if (request.getOrderIds().size() > MAX_BATCH_SIZE) {
+            throw new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE,
+                    "A batch may contain at most " + MAX_BATCH_SIZE + " orders");
+        }
+        return orderService.updateOrderStatuses(request.getOrderIds(), request.getStatus());
+    }
+
     /**
      * Deletes an order by its ID.
      *
@@ -84,4 +372,37 @@ public class OrderController {
     public void deleteOrder(@PathVariable String orderId) {
         orderService.deleteOrder(orderId);
     }
+
+    private static boolean isSummaryView(String view) {
+        if (view == null || view.equalsIgnoreCase("full")) {
+            return false;
+        }
+        if (view.equalsIgnoreCase("summary")) {
+            return true;
+        }
+        throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "view must be full or summary");
+    }
+
+    private static void requireFullView(String view) {
+        if (isSummaryView(view)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "fields cannot be combined with view=summary");
+        }
+    }
+
+    private static void requireCoordinates(double lat, double lng) {
+        if (!(lat >= -90 && lat <= 90 && lng >= -180 && lng <= 180)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "lat must be in [-90, 90] and lng in [-180, 180]");
+        }
+    }
+
+    private static Set<EStatus> indexedStatuses(Set<EStatus> statuses) {
+        if (statuses == null || statuses.isEmpty()) {
+            return DeliveryOrderIndex.ACTIVE_STATUSES;
+        }
+        if (!DeliveryOrderIndex.ACTIVE_STATUSES.containsAll(statuses)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "status must be one of " + DeliveryOrderIndex.ACTIVE_STATUSES);
+        }
+        return statuses;
+    }
 }
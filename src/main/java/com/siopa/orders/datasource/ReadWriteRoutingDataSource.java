@@ -0,0 +1,75 @@
+package com.siopa.orders.datasource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.function.Supplier;
+
+/**
+ * Routes connections of read-only transactions to a read replica and everything else to the primary.
+ * <p>
+ * The decision is made when a connection is obtained, so this data source must sit behind a
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}; otherwise the
+ * connection is taken before the transaction has been marked read-only. Reads also go to the
+ * primary while the current thread is pinned to it, and when no replica is within the tolerated lag.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    /**
+     * Lookup key of the primary data source.
+     */
+    public static final String PRIMARY = "primary";
+
+    private static final ThreadLocal<Boolean> PINNED_TO_PRIMARY = new ThreadLocal<>();
+
+    private final ReplicaLagMonitor lagMonitor;
+
+    public ReadWriteRoutingDataSource(ReplicaLagMonitor lagMonitor) {
+        this.lagMonitor = lagMonitor;
+    }
+
+    /**
+     * Sends all connections obtained by the current thread to the primary, until {@link #unpin()}.
+     * Used to let a client read its own writes before they reach the replicas.
+     */
+    public static void pinToPrimary() {
+        PINNED_TO_PRIMARY.set(Boolean.TRUE);
+    }
+
+    /**
+     * Lets read-only transactions on the current thread use the replicas again.
+     */
+    public static void unpin() {
+        PINNED_TO_PRIMARY.remove();
+    }
+
+    /**
+     * Runs an action with every connection obtained by the current thread going to the primary,
+     * then restores the previous pinning. Used by reads that must not see a lagging replica even
+     * though they run in a read-only transaction.
+     *
+     * @param action the action
+     * @param <T>    the result type
+     * @return the result of the action
+     */
+    public static <T> T onPrimary(Supplier<T> action) {
+        boolean pinned = PINNED_TO_PRIMARY.get() != null;
+        PINNED_TO_PRIMARY.set(Boolean.TRUE);
+        try {
+            return action.get();
+        } finally {
+            if (!pinned) {
+                PINNED_TO_PRIMARY.remove();
+            }
+        }
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly() || PINNED_TO_PRIMARY.get() != null) {
+            return PRIMARY;
+        }
+        String replica = lagMonitor.nextReplica();
+        return replica != null ? replica : PRIMARY;
+    }
+}
@@ -0,0 +1,89 @@
+package com.siopa.orders.datasource;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Set;
+
+/**
+ * Gives clients read-your-writes consistency on top of replica routing.
+ * Requests that may write are pinned to the primary for their whole duration, and their response
+ * carries the time of the write, as the {@value #LAST_WRITE_HEADER} header and a cookie of the same
+ * name. A request that sends that time back, in either form, reads from the primary until the
+ * sticky window after the write has passed. Because the client carries the time, every node
+ * honours it; the window should comfortably exceed the tolerated replica lag plus clock skew
+ * between nodes. A time further in the future than the window cannot come from a real write, so
+ * it is ignored rather than pinning the client to the primary indefinitely.
+ */
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    /**
+     * Header and cookie carrying the time of the client's last write, in epoch milliseconds.
+     */
+    public static final String LAST_WRITE_HEADER = "X-Orders-Last-Write";
+
+    private static final String LAST_WRITE_COOKIE = "orders-last-write";
+
+    private static final Set<String> READ_METHODS = Set.of("GET", "HEAD", "OPTIONS");
+
+    private final long stickyMs;
+
+    public ReadYourWritesFilter(long stickyMs) {
+        this.stickyMs = stickyMs;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        long now = System.currentTimeMillis();
+        boolean write = !READ_METHODS.contains(request.getMethod());
+        if (write) {
+            // recorded before the response can be committed, so the client has it as soon as it sees the result
+            String lastWrite = Long.toString(now);
+            response.setHeader(LAST_WRITE_HEADER, lastWrite);
+            Cookie cookie = new Cookie(LAST_WRITE_COOKIE, lastWrite);
+            cookie.setPath("/");
+            cookie.setHttpOnly(true);
+            cookie.setMaxAge((int) Math.max(1, stickyMs / 1000));
+            response.addCookie(cookie);
+        }
+        if (write || now - lastWrite(request, now) < stickyMs) {
+            ReadWriteRoutingDataSource.pinToPrimary();
+        }
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            ReadWriteRoutingDataSource.unpin();
+        }
+    }
+
+    /**
+     * Returns the time of the client's last write as sent back by the client, or 0 if it sent none
+     * or sent one that is not a plausible write time.
+     */
+    private long lastWrite(HttpServletRequest request, long now) {
+        String value = request.getHeader(LAST_WRITE_HEADER);
+        if (value == null && request.getCookies() != null) {
+            for (Cookie cookie : request.getCookies()) {
+                if (LAST_WRITE_COOKIE.equals(cookie.getName())) {
+                    value = cookie.getValue();
+                }
+            }
+        }
+        if (value == null) {
+            return 0;
+        }
+        try {
+            long lastWrite = Long.parseLong(value.trim());
+            // a write on a node whose clock runs ahead may be slightly in the future, but never by a whole window
+            return lastWrite - now < stickyMs ? lastWrite : 0;
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package com.siopa.orders.datasource;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Tracks how far each read replica lags behind the primary and hands out the replicas that are
+ * within the tolerated lag, round-robin.
+ * <p>
+ * Lag is measured by running the configured query on each replica, which must return the lag in
+ * milliseconds (null counts as caught up). A replica whose lag exceeds the tolerance, or whose
+ * check fails, receives no reads until a later check finds it within tolerance again. Replicas are
+ * only used after their first successful check. The last measured lag is published as the
+ * {@code orders.datasource.replica.lag} gauge, with -1 for a failed check.
+ * <p>
+ * Checks run on the monitor's own thread, so they are not held up by other scheduled work. If no
+ * check has completed for {@value #STALE_AFTER_CHECKS} check intervals, for example because a
+ * replica stopped answering, the measurements are treated as stale and all reads go to the primary.
+ */
+public class ReplicaLagMonitor implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaLagMonitor.class);
+
+    /**
+     * Number of check intervals after which the last measurements are no longer trusted.
+     */
+    static final int STALE_AFTER_CHECKS = 3;
+
+    private final Map<String, DataSource> replicas;
+    private final String lagQuery;
+    private final long maxLagMs;
+    private final long checkIntervalMs;
+    private final Map<String, Long> lagMs = new ConcurrentHashMap<>();
+    private final AtomicInteger next = new AtomicInteger();
+    private final ScheduledExecutorService checker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "replica-lag-monitor");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private volatile List<String> healthy = List.of();
+    private volatile long checkedAt;
+
+    public ReplicaLagMonitor(Map<String, DataSource> replicas, String lagQuery, long maxLagMs,
+                             long checkIntervalMs, MeterRegistry meterRegistry) {
+        this.replicas = replicas;
+        this.lagQuery = lagQuery;
+        this.maxLagMs = maxLagMs;
+        this.checkIntervalMs = checkIntervalMs;
+        for (String name : replicas.keySet()) {
+            lagMs.put(name, -1L);
+            Gauge.builder("orders.datasource.replica.lag", lagMs, lags -> lags.get(name))
+                    .description("Last measured replication lag of a read replica, or -1 if it could not be measured")
+                    .baseUnit("milliseconds")
+                    .tag("replica", name)
+                    .register(meterRegistry);
+        }
+    }
+
+    /**
+     * Returns the replica data sources by lookup key.
+     *
+     * @return the replicas
+     */
+    public Map<String, DataSource> getReplicas() {
+        return replicas;
+    }
+
+    /**
+     * Starts checking the lag every check interval on the monitor's own thread.
+     */
+    public void start() {
+        checker.scheduleWithFixedDelay(this::checkLag, 0, checkIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Returns the next replica within the tolerated lag.
+     *
+     * @return the lookup key of the replica, or null if no replica is within tolerance or the last
+     * check is too old to tell
+     */
+    public String nextReplica() {
+        List<String> candidates = healthy;
+        if (candidates.isEmpty() || System.currentTimeMillis() - checkedAt > STALE_AFTER_CHECKS * checkIntervalMs) {
+            return null;
+        }
+        return candidates.get(Math.floorMod(next.getAndIncrement(), candidates.size()));
+    }
+
+    /**
+     * Measures the lag of every replica and updates the set of replicas that may serve reads.
+     */
+    public void checkLag() {
+        // a lag measured now is only as fresh as the moment the check started
+        long startedAt = System.currentTimeMillis();
+        List<String> withinTolerance = new ArrayList<>();
+        replicas.forEach((name, dataSource) -> {
+            long lag = measureLag(name, dataSource);
+            lagMs.put(name, lag);
+            if (lag >= 0 && lag <= maxLagMs) {
+                withinTolerance.add(name);
+            }
+        });
+        if (!withinTolerance.equals(healthy)) {
+            logger.info("Read replicas within {} ms of the primary: {}", maxLagMs, withinTolerance);
+        }
+        healthy = List.copyOf(withinTolerance);
+        checkedAt = startedAt;
+    }
+
+    private long measureLag(String name, DataSource dataSource) {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(lagQuery)) {
+            if (!resultSet.next()) {
+                return 0;
+            }
+            double lag = resultSet.getDouble(1);
+            return resultSet.wasNull() ? 0 : Math.max(0, Math.round(lag));
+        } catch (Exception e) {
+            logger.warn("Could not measure the replication lag of {}", name, e);
+            return -1;
+        }
+    }
+
+    /**
+     * Stops the checks and closes the replica connection pools.
+     */
+    @Override
+    public void close() throws Exception {
+        checker.shutdownNow();
+        for (DataSource replica : replicas.values()) {
+            if (replica instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.siopa.orders.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.Ordered;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Sends read-only transactions to read replicas when {@code orders.datasource.routing.enabled=true}.
+ * <p>
+ * The primary is configured by {@code spring.datasource.*} as usual. Replicas are listed as JDBC URLs
+ * in {@code orders.datasource.replicas} and share the primary's credentials unless
+ * {@code orders.datasource.replica.username}/{@code password} are set. Replicas lagging more than
+ * {@code orders.datasource.replica.max-lag-ms} are skipped, and a client that sends back the time of
+ * a write made within the last {@code orders.datasource.read-your-writes-ms} reads from the primary.
+ */
+@Configuration
+@ConditionalOnProperty(name = "orders.datasource.routing.enabled", havingValue = "true")
+public class ReplicaRoutingConfig {
+
+    /**
+     * Lag query for PostgreSQL streaming replicas. A replica that has replayed everything it received
+     * reports no lag, so an idle primary does not make its replicas look stale.
+     */
+    static final String POSTGRES_LAG_QUERY = "SELECT CASE WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0 "
+            + "ELSE EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) * 1000 END";
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(DataSourceProperties properties,
+                                               @Value("${orders.datasource.replicas}") List<String> replicaUrls,
+                                               @Value("${orders.datasource.replica.username:}") String username,
+                                               @Value("${orders.datasource.replica.password:}") String password,
+                                               @Value("${orders.datasource.replica.pool-size:10}") int poolSize,
+                                               @Value("${orders.datasource.replica.lag-query:" + POSTGRES_LAG_QUERY + "}") String lagQuery,
+                                               @Value("${orders.datasource.replica.max-lag-ms:5000}") long maxLagMs,
+                                               @Value("${orders.datasource.replica.lag-check-interval-ms:1000}") long checkIntervalMs,
+                                               MeterRegistry meterRegistry) {
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        for (int i = 0; i < replicaUrls.size(); i++) {
+            HikariDataSource replica = DataSourceBuilder.create()
+                    .type(HikariDataSource.class)
+                    .url(replicaUrls.get(i).trim())
+                    .username(username.isEmpty() ? properties.determineUsername() : username)
+                    .password(username.isEmpty() ? properties.determinePassword() : password)
+                    .build();
+            replica.setPoolName("replica-" + i);
+            replica.setMaximumPoolSize(poolSize);
+            replica.setReadOnly(true);
+            replicas.put("replica-" + i, replica);
+        }
+        ReplicaLagMonitor monitor = new ReplicaLagMonitor(replicas, lagQuery, maxLagMs, checkIntervalMs, meterRegistry);
+        monitor.start();
+        return monitor;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primaryDataSource, ReplicaLagMonitor replicaLagMonitor) {
+        ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource(replicaLagMonitor);
+        Map<Object, Object> targets = new HashMap<>(replicaLagMonitor.getReplicas());
+        targets.put(ReadWriteRoutingDataSource.PRIMARY, primaryDataSource);
+        routing.setTargetDataSources(targets);
+        routing.setDefaultTargetDataSource(primaryDataSource);
+        routing.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+
+    @Bean
+    public FilterRegistrationBean<ReadYourWritesFilter> readYourWritesFilter(
+            @Value("${orders.datasource.read-your-writes-ms:10000}") long stickyMs) {
+        FilterRegistrationBean<ReadYourWritesFilter> registration =
+                new FilterRegistrationBean<>(new ReadYourWritesFilter(stickyMs));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 100);
+        return registration;
+    }
+}
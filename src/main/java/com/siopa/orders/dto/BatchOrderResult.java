@@ -0,0 +1,34 @@
+package com.siopa.orders.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO describing the outcome of one order in a batch creation request.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchOrderResult {
+
+    /**
+     * The position of the order in the request.
+     */
+    private int index;
+
+    /**
+     * The ID assigned to the created order, or null if it was rejected.
+     */
+    private String orderId;
+
+    /**
+     * Indicates whether the order was created.
+     */
+    private boolean created;
+
+    /**
+     * The reason the order was rejected, or null if it was created.
+     */
+    private String error;
+}
@@ -0,0 +1,23 @@
+package com.siopa.orders.dto;
+
+import com.siopa.orders.models.EStatus;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * DTO for moving several orders to the same status at once.
+ */
+@Data
+public class BulkStatusUpdateRequest {
+
+    /**
+     * The IDs of the orders to update.
+     */
+    private List<String> orderIds;
+
+    /**
+     * The status to move the orders to.
+     */
+    private EStatus status;
+}
@@ -0,0 +1,30 @@
+package com.siopa.orders.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO for a single page of a keyset-paginated listing.
+ * The next cursor is opaque to clients and is passed back as the `after` parameter
+ * to fetch the following page.
+ *
+ * @param <T> the type of the items in the page
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPage<T> {
+
+    /**
+     * The items in this page, in cursor order.
+     */
+    private List<T> items;
+
+    /**
+     * The cursor to request the next page with, or null if this is the last page.
+     */
+    private String nextCursor;
+}
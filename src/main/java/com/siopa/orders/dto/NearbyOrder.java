@@ -0,0 +1,45 @@
+package com.siopa.orders.dto;
+
+import com.siopa.orders.models.EStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A delivery order found near a point, with its distance from that point.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class NearbyOrder {
+
+    /**
+     * The unique identifier of the order.
+     */
+    private String orderId;
+
+    /**
+     * The unique identifier of the store the order was placed with.
+     */
+    private String storeID;
+
+    /**
+     * The current status of the order.
+     */
+    private EStatus status;
+
+    /**
+     * The latitude of the customer's location.
+     */
+    private double customerLat;
+
+    /**
+     * The longitude of the customer's location.
+     */
+    private double customerLng;
+
+    /**
+     * The great-circle distance from the query point, in kilometres.
+     */
+    private double distanceKm;
+}
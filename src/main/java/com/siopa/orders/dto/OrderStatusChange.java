@@ -0,0 +1,26 @@
+package com.siopa.orders.dto;
+
+import com.siopa.orders.models.EStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Status change reported by the delivery and store services over Kafka.
+ * Records are expected to be keyed by order ID, so all changes to an order arrive in order.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderStatusChange {
+
+    /**
+     * The ID of the order that changed.
+     */
+    private String orderId;
+
+    /**
+     * The new status of the order.
+     */
+    private EStatus status;
+}
@@ -0,0 +1,48 @@
+package com.siopa.orders.dto;
+
+import com.siopa.orders.events.OrderEvent;
+import com.siopa.orders.models.EStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Date;
+
+/**
+ * DTO pushed to server-sent event subscribers when an order is created, changes status, or is deleted.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderStatusEvent {
+
+    /**
+     * The ID of the order that changed.
+     */
+    private String orderId;
+
+    /**
+     * The store the order belongs to.
+     */
+    private String storeID;
+
+    /**
+     * The kind of change.
+     */
+    private OrderEvent.Type type;
+
+    /**
+     * The status before the change, or null for a newly created order.
+     */
+    private EStatus previousStatus;
+
+    /**
+     * The status after the change.
+     */
+    private EStatus status;
+
+    /**
+     * The time the change was published.
+     */
+    private Date timestamp;
+}
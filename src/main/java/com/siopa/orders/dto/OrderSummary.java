@@ -0,0 +1,44 @@
+package com.siopa.orders.dto;
+
+import com.siopa.orders.models.EStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.Date;
+
+/**
+ * Lightweight read-only projection of an order for list views.
+ * Selected directly by the repository, so no entity is hydrated and no items are loaded.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderSummary {
+
+    /**
+     * The unique identifier of the order.
+     */
+    private String orderId;
+
+    /**
+     * The unique identifier of the store the order was placed with.
+     */
+    private String storeID;
+
+    /**
+     * The current status of the order.
+     */
+    private EStatus status;
+
+    /**
+     * The total cost of the order.
+     */
+    private BigDecimal totalCost;
+
+    /**
+     * Timestamp indicating when the order was created.
+     */
+    private Date crtdTimeStamp;
+}
@@ -0,0 +1,84 @@
+package com.siopa.orders.dto;
+
+import com.siopa.orders.models.ERollupGranularity;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.Date;
+
+/**
+ * DTO for the revenue and volume of orders created in one hour or day, for one store or all stores.
+ * Selected directly by the repository from the rollup table.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RollupBucket {
+
+    /**
+     * The store the figures are for, or null for the total across stores.
+     */
+    private String storeID;
+
+    /**
+     * The width of the bucket.
+     */
+    private ERollupGranularity granularity;
+
+    /**
+     * The start of the bucket.
+     */
+    private Date bucketStart;
+
+    /**
+     * The number of orders placed.
+     */
+    private long orderCount;
+
+    /**
+     * The number of items ordered, counting quantities.
+     */
+    private long itemCount;
+
+    /**
+     * The total cost of the orders placed, including delivery fees.
+     */
+    private BigDecimal totalCost;
+
+    /**
+     * The delivery fees of the orders placed.
+     */
+    private BigDecimal deliveryFees;
+
+    /**
+     * The number of those orders since cancelled.
+     */
+    private long cancelledCount;
+
+    /**
+     * The total cost of the orders since cancelled.
+     */
+    private BigDecimal cancelledTotalCost;
+
+    /**
+     * The number of those orders since completed.
+     */
+    private long completedCount;
+
+    /**
+     * The total cost of the orders since completed.
+     */
+    private BigDecimal completedTotalCost;
+
+    /**
+     * Creates the total of a bucket across all stores.
+     */
+    public RollupBucket(ERollupGranularity granularity, Date bucketStart, long orderCount, long itemCount,
+                        BigDecimal totalCost, BigDecimal deliveryFees, long cancelledCount,
+                        BigDecimal cancelledTotalCost, long completedCount, BigDecimal completedTotalCost) {
+        this(null, granularity, bucketStart, orderCount, itemCount, totalCost, deliveryFees, cancelledCount,
+                cancelledTotalCost, completedCount, completedTotalCost);
+    }
+}
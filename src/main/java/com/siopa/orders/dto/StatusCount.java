@@ -0,0 +1,32 @@
+package com.siopa.orders.dto;
+
+import com.siopa.orders.models.EStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+/**
+ * DTO for the number of orders in a given status, in total and per store.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StatusCount {
+
+    /**
+     * The order status counted.
+     */
+    private EStatus status;
+
+    /**
+     * The number of orders with the status across the stores included.
+     */
+    private long count;
+
+    /**
+     * The number of orders with the status keyed by store ID.
+     */
+    private Map<String, Long> byStore;
+}
@@ -0,0 +1,44 @@
+package com.siopa.orders.dto;
+
+import com.siopa.orders.models.EStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO describing the outcome of a status update for one order of a bulk request.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StatusUpdateResult {
+
+    /**
+     * The possible outcomes of a status update.
+     */
+    public enum Outcome {
+        UPDATED,
+        NOT_FOUND,
+        INVALID_TRANSITION
+    }
+
+    /**
+     * The ID of the order.
+     */
+    private String orderId;
+
+    /**
+     * The outcome of the update.
+     */
+    private Outcome outcome;
+
+    /**
+     * The status of the order before the update, or null if it was not found.
+     */
+    private EStatus previousStatus;
+
+    /**
+     * The status of the order after the update, or null if it was not found.
+     */
+    private EStatus status;
+}
@@ -0,0 +1,96 @@
+package com.siopa.orders.events;
+
+import com.siopa.orders.models.EStatus;
+import com.siopa.orders.models.Order;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Application event published by the order service whenever an order is created,
+ * changes status, or is deleted. Listeners that keep derived state in memory should
+ * consume it after the originating transaction commits.
+ */
+@Getter
+@AllArgsConstructor
+public class OrderEvent {
+
+    /**
+     * The kind of change an event describes.
+     */
+    public enum Type {
+        CREATED,
+        STATUS_CHANGED,
+        DELETED
+    }
+
+    /**
+     * The kind of change.
+     */
+    private final Type type;
+
+    /**
+     * The order the change applies to. Its status field may not reflect the change;
+     * use {@link #getStatus()} instead.
+     */
+    private final Order order;
+
+    /**
+     * The status before the change, or null for a newly created order.
+     */
+    private final EStatus previousStatus;
+
+    /**
+     * The status after the change.
+     */
+    private final EStatus status;
+
+    /**
+     * Returns the ID of the order the change applies to.
+     *
+     * @return the order ID
+     */
+    public String getOrderId() {
+        return order.getOrderId();
+    }
+
+    /**
+     * Returns the store of the order the change applies to.
+     *
+     * @return the store ID
+     */
+    public String getStoreID() {
+        return order.getStoreID();
+    }
+
+    /**
+     * Creates an event for a newly created order.
+     *
+     * @param order the created order
+     * @return the event
+     */
+    public static OrderEvent created(Order order) {
+        return new OrderEvent(Type.CREATED, order, null, order.getStatus());
+    }
+
+    /**
+     * Creates an event for an order whose status changed.
+     *
+     * @param order          the order
+     * @param previousStatus the status before the change
+     * @param status         the status after the change
+     * @return the event
+     */
+    public static OrderEvent statusChanged(Order order, EStatus previousStatus, EStatus status) {
+        return new OrderEvent(Type.STATUS_CHANGED, order, previousStatus, status);
+    }
+
+    /**
+     * Creates an event for a deleted order.
+     *
+     * @param order the order as it was before deletion
+     * @return the event
+     */
+    public static OrderEvent deleted(Order order) {
+        return new OrderEvent(Type.DELETED, order, order.getStatus(), order.getStatus());
+    }
+}
@@ -0,0 +1,15 @@
+package com.siopa.orders.exceptions;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Thrown when a pagination cursor supplied by a client cannot be decoded.
+ */
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class InvalidCursorException extends RuntimeException {
+
+    public InvalidCursorException(String cursor, Throwable cause) {
+        super("Invalid cursor: " + cursor, cause);
+    }
+}
@@ -0,0 +1,25 @@
+package com.siopa.orders.exceptions;
+
+import com.siopa.orders.models.EStatus;
+import lombok.Getter;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Thrown when an order cannot move from its current status to the requested one.
+ */
+@Getter
+@ResponseStatus(HttpStatus.CONFLICT)
+public class InvalidStatusTransitionException extends RuntimeException {
+
+    private final String orderId;
+    private final EStatus currentStatus;
+    private final EStatus requestedStatus;
+
+    public InvalidStatusTransitionException(String orderId, EStatus currentStatus, EStatus requestedStatus) {
+        super("Order " + orderId + " cannot move from " + currentStatus + " to " + requestedStatus);
+        this.orderId = orderId;
+        this.currentStatus = currentStatus;
+        this.requestedStatus = requestedStatus;
+    }
+}
@@ -0,0 +1,15 @@
+package com.siopa.orders.exceptions;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Thrown when a client asks for an order field that cannot be selected on its own.
+ */
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class UnknownFieldException extends RuntimeException {
+
+    public UnknownFieldException(String field) {
+        super("Unknown or unselectable field: " + field);
+    }
+}
@@ -0,0 +1,204 @@
+package com.siopa.orders.kafka;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Compact binary encoding carrying many product order messages per record.
+ * <pre>
+ * envelope := version:u8 count:varint message{count}
+ * message  := 0x00 uuid:16 bytes (big-endian)       quantity:zigzag-varint
+ *           | 0x01 length:varint productId:utf-8     quantity:zigzag-varint
+ * </pre>
+ * Product IDs in canonical lower-case UUID form take the 16-byte form; any other ID is written
+ * as a string, so decoding always yields the original ID. Messages are encoded into a reusable
+ * per-thread scratch buffer and copied out once per record.
+ */
+@Component
+@ConditionalOnProperty(name = "orders.kafka.format", havingValue = "binary")
+public class BinaryProductOrderSerializer implements ProductOrderSerializer {
+
+    /**
+     * Version of the envelope layout written by this serializer.
+     */
+    public static final byte VERSION = 1;
+
+    /**
+     * Content type of the envelope, including its version.
+     */
+    public static final String CONTENT_TYPE = "application/vnd.siopa.product-orders+binary;v=" + VERSION;
+
+    private static final byte TAG_UUID = 0;
+    private static final byte TAG_STRING = 1;
+
+    private static final ThreadLocal<Scratch> SCRATCH = ThreadLocal.withInitial(Scratch::new);
+
+    private final int maxMessagesPerRecord;
+
+    public BinaryProductOrderSerializer(@Value("${orders.kafka.binary.max-messages-per-record:500}") int maxMessagesPerRecord) {
+        this.maxMessagesPerRecord = maxMessagesPerRecord;
+    }
+
+    @Override
+    public String contentType() {
+        return CONTENT_TYPE;
+    }
+
+    @Override
+    public int maxMessagesPerRecord() {
+        return maxMessagesPerRecord;
+    }
+
+    @Override
+    public byte[] serialize(List<ProductOrderMessage> messages) {
+        Scratch out = SCRATCH.get();
+        out.reset();
+        out.writeByte(VERSION);
+        out.writeVarint(messages.size());
+        for (ProductOrderMessage message : messages) {
+            String productId = message.getProductId();
+            if (!out.tryWriteUuid(productId)) {
+                byte[] utf8 = productId.getBytes(StandardCharsets.UTF_8);
+                out.writeByte(TAG_STRING);
+                out.writeVarint(utf8.length);
+                out.writeBytes(utf8);
+            }
+            out.writeVarint((message.getQuantity() << 1) ^ (message.getQuantity() >> 31));
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Decodes an envelope written by {@link #serialize(List)}.
+     *
+     * @param value the record value
+     * @return the messages, in the order they were written
+     * @throws IllegalArgumentException if the envelope version is not supported
+     */
+    public static List<ProductOrderMessage> deserialize(byte[] value) {
+        ByteBuffer in = ByteBuffer.wrap(value);
+        if (!in.hasRemaining() || in.get() != VERSION) {
+            throw new IllegalArgumentException("Unsupported product order envelope version");
+        }
+        int count = readVarint(in);
+        List<ProductOrderMessage> messages = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String productId;
+            byte tag = in.get();
+            if (tag == TAG_UUID) {
+                productId = new UUID(in.getLong(), in.getLong()).toString();
+            } else if (tag == TAG_STRING) {
+                int length = readVarint(in);
+                productId = new String(value, in.position(), length, StandardCharsets.UTF_8);
+                in.position(in.position() + length);
+            } else {
+                throw new IllegalArgumentException("Unknown product ID tag " + tag);
+            }
+            int zigzag = readVarint(in);
+            messages.add(new ProductOrderMessage(productId, (zigzag >>> 1) ^ -(zigzag & 1)));
+        }
+        return messages;
+    }
+
+    private static int readVarint(ByteBuffer in) {
+        int result = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            byte b = in.get();
+            result |= (b & 0x7F) << shift;
+            if (b >= 0) {
+                return result;
+            }
+        }
+        throw new IllegalArgumentException("Malformed varint");
+    }
+
+    /**
+     * Growable output buffer reused across records on the same thread.
+     */
+    private static final class Scratch {
+
+        private byte[] buffer = new byte[4096];
+        private int position;
+
+        void reset() {
+            position = 0;
+        }
+
+        void ensure(int bytes) {
+            if (position + bytes > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, position + bytes));
+            }
+        }
+
+        void writeByte(int b) {
+            ensure(1);
+            buffer[position++] = (byte) b;
+        }
+
+        void writeBytes(byte[] bytes) {
+            ensure(bytes.length);
+            System.arraycopy(bytes, 0, buffer, position, bytes.length);
+            position += bytes.length;
+        }
+
+        void writeVarint(int value) {
+            ensure(5);
+            while ((value & ~0x7F) != 0) {
+                buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            buffer[position++] = (byte) value;
+        }
+
+        /**
+         * Writes the UUID tag and the 16 bytes of a canonical lower-case UUID, parsing the hex
+         * digits directly into the buffer.
+         *
+         * @return false, with nothing written, if the ID is not a canonical lower-case UUID
+         */
+        boolean tryWriteUuid(String id) {
+            if (id.length() != 36 || id.charAt(8) != '-' || id.charAt(13) != '-' || id.charAt(18) != '-'
+                    || id.charAt(23) != '-') {
+                return false;
+            }
+            ensure(17);
+            int start = position;
+            buffer[position++] = TAG_UUID;
+            for (int i = 0; i < 36; i += 2) {
+                if (i == 8 || i == 13 || i == 18 || i == 23) {
+                    i++;
+                }
+                int high = hex(id.charAt(i));
+                int low = hex(id.charAt(i + 1));
+                if (high < 0 || low < 0) {
+                    position = start;
+                    return false;
+                }
+                buffer[position++] = (byte) ((high << 4) | low);
+            }
+            return true;
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(buffer, position);
+        }
+
+        private static int hex(char c) {
+            if (c >= '0' && c <= '9') {
+                return c - '0';
+            }
+            if (c >= 'a' && c <= 'f') {
+                return c - 'a' + 10;
+            }
+            return -1;
+        }
+    }
+}
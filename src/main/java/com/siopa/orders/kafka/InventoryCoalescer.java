@@ -0,0 +1,108 @@
+package com.siopa.orders.kafka;
+
+import com.siopa.orders.models.OrderOutbox;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Optional aggregation stage in front of {@link OrderProducer}.
+ * Sums the quantities of outbox entries for the same product into a single inventory message,
+ * so a popular product produces one record per relay window instead of one per order. Entries
+ * are merged across stores, since the message identifies only the product. The window is the
+ * relay batch: its size bounds how many entries are merged and the relay interval bounds how long
+ * they wait. A line that would overflow the merged quantity starts a new message for the product.
+ */
+@Component
+public class InventoryCoalescer {
+
+    private static final Logger logger = LoggerFactory.getLogger(InventoryCoalescer.class);
+
+    private final boolean enabled;
+    private final Counter entriesIn;
+    private final Counter messagesOut;
+    private final Counter quantity;
+
+    public InventoryCoalescer(@Value("${orders.outbox.coalesce.enabled:false}") boolean enabled,
+                              MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.entriesIn = meterRegistry.counter("orders.coalesce.entries.in");
+        this.messagesOut = meterRegistry.counter("orders.coalesce.messages.out");
+        this.quantity = meterRegistry.counter("orders.coalesce.quantity");
+    }
+
+    /**
+     * Groups outbox entries into the messages to publish.
+     * When coalescing is disabled every entry becomes its own message.
+     *
+     * @param entries the outbox entries of one relay window
+     * @return the messages to publish, each with the outbox entries it covers
+     */
+    public List<CoalescedMessage> coalesce(List<OrderOutbox> entries) {
+        Map<String, CoalescedMessage> groups = new LinkedHashMap<>();
+        List<CoalescedMessage> messages = new ArrayList<>(entries.size());
+        long total = 0;
+
+        for (OrderOutbox entry : entries) {
+            total += entry.getQuantity();
+            CoalescedMessage group = enabled ? groups.get(entry.getProductId()) : null;
+            if (group == null || !group.add(entry)) {
+                group = new CoalescedMessage(new ProductOrderMessage(entry.getProductId(), 0), new ArrayList<>());
+                group.add(entry);
+                messages.add(group);
+                if (enabled) {
+                    groups.put(entry.getProductId(), group);
+                }
+            }
+        }
+
+        entriesIn.increment(entries.size());
+        messagesOut.increment(messages.size());
+        quantity.increment(total);
+        logger.debug("Coalesced {} outbox entries into {} messages", entries.size(), messages.size());
+        return messages;
+    }
+
+    /**
+     * An inventory message together with the outbox entries whose quantities it carries.
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class CoalescedMessage {
+
+        /**
+         * The message to publish.
+         */
+        private final ProductOrderMessage message;
+
+        /**
+         * The identifiers of the outbox entries merged into the message.
+         */
+        private final List<Long> outboxIds;
+
+        /**
+         * Merges an entry into the message, unless the merged quantity would overflow.
+         *
+         * @return whether the entry was merged
+         */
+        private boolean add(OrderOutbox entry) {
+            try {
+                message.setQuantity(Math.addExact(message.getQuantity(), entry.getQuantity()));
+            } catch (ArithmeticException e) {
+                return false;
+            }
+            outboxIds.add(entry.getId());
+            return true;
+        }
+    }
+}
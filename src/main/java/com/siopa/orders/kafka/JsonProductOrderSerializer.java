@@ -0,0 +1,45 @@
+package com.siopa.orders.kafka;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+import java.io.UncheckedIOException;
+import java.util.List;
+
+/**
+ * Compatibility encoding: one JSON object per record, as consumers have always received it.
+ * Messages are written straight to UTF-8 bytes without an intermediate String.
+ */
+@Component
+@ConditionalOnProperty(name = "orders.kafka.format", havingValue = "json", matchIfMissing = true)
+public class JsonProductOrderSerializer implements ProductOrderSerializer {
+
+    private final ObjectWriter writer;
+
+    public JsonProductOrderSerializer(ObjectMapper objectMapper) {
+        this.writer = objectMapper.writerFor(ProductOrderMessage.class);
+    }
+
+    @Override
+    public String contentType() {
+        return MediaType.APPLICATION_JSON_VALUE;
+    }
+
+    @Override
+    public int maxMessagesPerRecord() {
+        return 1;
+    }
+
+    @Override
+    public byte[] serialize(List<ProductOrderMessage> messages) {
+        try {
+            return writer.writeValueAsBytes(messages.get(0));
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.siopa.orders.kafka;
+
+import com.siopa.orders.dto.OrderStatusChange;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
+import org.springframework.boot.ssl.SslBundles;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
+import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.kafka.support.serializer.ErrorHandlingDeserializer;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+import org.springframework.util.backoff.ExponentialBackOff;
+
+import java.util.Map;
+
+/**
+ * Consumer configuration for status changes from the delivery and store services.
+ * Batches are delivered to {@link OrderStatusConsumer} as lists, and their offsets are committed
+ * only once the listener has returned, that is after the changes are persisted. A batch that fails
+ * is redelivered with exponential backoff for up to {@code orders.kafka.status-consumer.max-retry-ms};
+ * after that its records are published to a dead-letter topic and committed, so one bad batch
+ * cannot stall the partition forever. Records that cannot be deserialized arrive with a null value
+ * instead of failing the batch. All other consumer and producer settings come from
+ * {@code spring.kafka.*}.
+ */
+@Configuration
+public class KafkaConsumerConfig {
+
+    @Bean
+    public ConsumerFactory<String, OrderStatusChange> orderStatusConsumerFactory(
+            KafkaProperties kafkaProperties, ObjectProvider<SslBundles> sslBundles,
+            @Value("${orders.kafka.status-consumer.group-id:siopa-orders-status}") String groupId,
+            @Value("${orders.kafka.status-consumer.max-poll-records:500}") int maxPollRecords) {
+        Map<String, Object> properties = kafkaProperties.buildConsumerProperties(sslBundles.getIfAvailable());
+        properties.put(ConsumerConfig.GROUP_ID_CONFIG, groupId);
+        properties.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        properties.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, maxPollRecords);
+        JsonDeserializer<OrderStatusChange> json = new JsonDeserializer<>(OrderStatusChange.class, false);
+        return new DefaultKafkaConsumerFactory<>(properties, new StringDeserializer(),
+                new ErrorHandlingDeserializer<>(json));
+    }
+
+    @Bean
+    public KafkaTemplate<String, Object> orderStatusDeadLetterTemplate(KafkaProperties kafkaProperties,
+                                                                       ObjectProvider<SslBundles> sslBundles) {
+        Map<String, Object> properties = kafkaProperties.buildProducerProperties(sslBundles.getIfAvailable());
+        return new KafkaTemplate<>(new DefaultKafkaProducerFactory<>(properties, new StringSerializer(),
+                new JsonSerializer<>()));
+    }
+
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, OrderStatusChange> orderStatusListenerContainerFactory(
+            ConsumerFactory<String, OrderStatusChange> orderStatusConsumerFactory,
+            KafkaTemplate<String, Object> orderStatusDeadLetterTemplate,
+            @Value("${orders.kafka.status-consumer.concurrency:1}") int concurrency,
+            @Value("${orders.kafka.status-consumer.max-retry-ms:300000}") long maxRetryMs,
+            @Value("${orders.kafka.status-consumer.dead-letter-topic:order-status.DLT}") String deadLetterTopic) {
+        ConcurrentKafkaListenerContainerFactory<String, OrderStatusChange> factory =
+                new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(orderStatusConsumerFactory);
+        factory.setBatchListener(true);
+        factory.setConcurrency(concurrency);
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.BATCH);
+        ExponentialBackOff backOff = new ExponentialBackOff(500, 2);
+        backOff.setMaxInterval(30_000);
+        backOff.setMaxElapsedTime(maxRetryMs);
+        // a negative partition lets the producer choose, so the dead-letter topic needs no matching partition count
+        DeadLetterPublishingRecoverer recoverer = new DeadLetterPublishingRecoverer(orderStatusDeadLetterTemplate,
+                (record, e) -> new TopicPartition(deadLetterTopic, -1));
+        factory.setCommonErrorHandler(new DefaultErrorHandler(recoverer, backOff));
+        return factory;
+    }
+}
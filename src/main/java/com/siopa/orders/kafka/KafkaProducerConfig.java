@@ -0,0 +1,35 @@
+package com.siopa.orders.kafka;
+
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
+import org.springframework.boot.ssl.SslBundles;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.ProducerFactory;
+
+import java.util.Map;
+
+/**
+ * Producer configuration for inventory messages.
+ * Values are raw bytes so {@link OrderProducer} can send whatever its {@link ProductOrderSerializer}
+ * produces; all other producer settings still come from {@code spring.kafka.*}.
+ */
+@Configuration
+public class KafkaProducerConfig {
+
+    @Bean
+    public ProducerFactory<String, byte[]> orderProducerFactory(KafkaProperties kafkaProperties,
+                                                                ObjectProvider<SslBundles> sslBundles) {
+        Map<String, Object> properties = kafkaProperties.buildProducerProperties(sslBundles.getIfAvailable());
+        return new DefaultKafkaProducerFactory<>(properties, new StringSerializer(), new ByteArraySerializer());
+    }
+
+    @Bean
+    public KafkaTemplate<String, byte[]> orderKafkaTemplate(ProducerFactory<String, byte[]> orderProducerFactory) {
+        return new KafkaTemplate<>(orderProducerFactory);
+    }
+}
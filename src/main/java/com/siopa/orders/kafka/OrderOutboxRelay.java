@@ -0,0 +1,145 @@
+package com.siopa.orders.kafka;
+
+import com.siopa.orders.kafka.InventoryCoalescer.CoalescedMessage;
+import com.siopa.orders.models.OrderOutbox;
+import com.siopa.orders.repositories.OrderOutboxRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
+
+/**
+ * Background worker that drains the transactional outbox to Kafka.
+ * Entries are locked in batches, optionally coalesced per store and product, published as
+ * one keyed burst, and marked as sent only once the broker has acknowledged the message that
+ * carries them, giving at-least-once delivery.
+ */
+@Component
+public class OrderOutboxRelay {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderOutboxRelay.class);
+
+    private final OrderOutboxRepository outboxRepository;
+    private final OrderProducer orderProducer;
+    private final InventoryCoalescer inventoryCoalescer;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final long sendTimeoutMs;
+    private final long retentionMs;
+
+    public OrderOutboxRelay(OrderOutboxRepository outboxRepository,
+                            OrderProducer orderProducer,
+                            InventoryCoalescer inventoryCoalescer,
+                            PlatformTransactionManager transactionManager,
+                            @Value("${orders.outbox.batch-size:500}") int batchSize,
+                            @Value("${orders.outbox.send-timeout-ms:10000}") long sendTimeoutMs,
+                            @Value("${orders.outbox.retention-ms:86400000}") long retentionMs) {
+        this.outboxRepository = outboxRepository;
+        this.orderProducer = orderProducer;
+        this.inventoryCoalescer = inventoryCoalescer;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.sendTimeoutMs = sendTimeoutMs;
+        this.retentionMs = retentionMs;
+    }
+
+    /**
+     * Relays pending outbox entries until the outbox is drained or a batch fails.
+     */
+    @Scheduled(fixedDelayString = "${orders.outbox.relay-interval-ms:200}")
+    public void relay() {
+        int relayed;
+        do {
+            relayed = relayBatch();
+        } while (relayed == batchSize);
+    }
+
+    /**
+     * Relays a single batch of pending outbox entries.
+     *
+     * @return the number of entries sent, or 0 if the batch was empty or not fully acknowledged
+     */
+    public int relayBatch() {
+        Integer relayed = transactionTemplate.execute(status -> {
+            List<OrderOutbox> batch = outboxRepository.lockNextUnsent(batchSize);
+            if (batch.isEmpty()) {
+                return 0;
+            }
+
+            List<CoalescedMessage> messages = inventoryCoalescer.coalesce(batch);
+            List<Long> sentIds = awaitAcknowledged(messages, orderProducer.sendBatch(messages.stream()
+                    .map(CoalescedMessage::getMessage)
+                    .collect(Collectors.toList())));
+            if (!sentIds.isEmpty()) {
+                outboxRepository.markSent(sentIds, new Date());
+            }
+            logger.debug("Relayed {} of {} outbox entries in {} messages", sentIds.size(), batch.size(),
+                    messages.size());
+            return sentIds.size() == batch.size() ? sentIds.size() : 0;
+        });
+        return relayed != null ? relayed : 0;
+    }
+
+    /**
+     * Drains the outbox one last time on shutdown so pending entries are not left
+     * waiting for the next instance to start.
+     */
+    @PreDestroy
+    public void flush() {
+        try {
+            relay();
+        } catch (RuntimeException e) {
+            logger.warn("Failed to flush the outbox on shutdown, entries remain pending", e);
+        }
+    }
+
+    /**
+     * Deletes outbox entries that were sent longer ago than the retention period.
+     */
+    @Scheduled(fixedDelayString = "${orders.outbox.purge-interval-ms:3600000}")
+    public void purgeSent() {
+        Integer deleted = transactionTemplate.execute(status ->
+                outboxRepository.deleteSentBefore(new Date(System.currentTimeMillis() - retentionMs)));
+        logger.info("Purged {} sent outbox entries", deleted);
+    }
+
+    private List<Long> awaitAcknowledged(List<CoalescedMessage> messages,
+                                         CompletableFuture<List<RecordSendResult>> pending) {
+        List<RecordSendResult> results;
+        try {
+            results = pending.get(sendTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException | ExecutionException e) {
+            logger.warn("Outbox batch of {} messages was not acknowledged in time, will retry", messages.size(), e);
+            return List.of();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return List.of();
+        }
+
+        List<Long> sentIds = new ArrayList<>();
+        for (int i = 0; i < messages.size(); i++) {
+            CoalescedMessage message = messages.get(i);
+            RecordSendResult result = results.get(i);
+            if (result.isSuccess()) {
+                sentIds.addAll(message.getOutboxIds());
+            } else {
+                logger.warn("Outbox entries {} were not acknowledged, will retry", message.getOutboxIds(),
+                        result.getFailure());
+            }
+        }
+        return sentIds;
+    }
+}
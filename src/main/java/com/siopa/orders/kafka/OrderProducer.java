@@ -1,55 +1,226 @@
 package com.siopa.orders.kafka;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.siopa.orders.dto.OrderItemRequest;
-import com.siopa.orders.services.OrderService;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.utils.Utils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
 /**
  * Kafka Producer that sends product order details to the Kafka topic.
+ * Values are encoded by the configured {@link ProductOrderSerializer}. With one message per record,
+ * records are keyed by product ID; with batched records, messages are grouped by the partition
+ * their product ID maps to, so all updates for a product still land on the same partition.
+ * Acknowledgement latency, record size and failures are recorded as {@code orders.kafka.send},
+ * {@code orders.kafka.record.bytes} and {@code orders.kafka.send.failures}.
  */
 @Service
 public class OrderProducer {
 
-    private static final Logger logger = LoggerFactory.getLogger(OrderService.class);
+    private static final Logger logger = LoggerFactory.getLogger(OrderProducer.class);
 
     @Value("${spring.kafka.topic.order}")
     private String orderTopic;
 
-    private final KafkaTemplate<String, String> kafkaTemplate;
-    private final ObjectMapper objectMapper;
+    private final KafkaTemplate<String, byte[]> kafkaTemplate;
+    private final ProductOrderSerializer serializer;
+    private final byte[] contentType;
+    private final Semaphore inFlight;
+    private final MeterRegistry meterRegistry;
+    private final Timer ackTimer;
+    private final DistributionSummary recordBytes;
 
-    public OrderProducer(KafkaTemplate<String, String> kafkaTemplate, ObjectMapper objectMapper) {
+    public OrderProducer(KafkaTemplate<String, byte[]> kafkaTemplate, ProductOrderSerializer serializer,
+                         @Value("${orders.kafka.max-in-flight:1000}") int maxInFlight,
+                         MeterRegistry meterRegistry) {
         this.kafkaTemplate = kafkaTemplate;
-        this.objectMapper = objectMapper;
+        this.serializer = serializer;
+        this.contentType = serializer.contentType().getBytes(StandardCharsets.UTF_8);
+        this.inFlight = new Semaphore(maxInFlight);
+        this.meterRegistry = meterRegistry;
+        this.ackTimer = Timer.builder("orders.kafka.send")
+                .description("Time from handing a record to the producer until the broker acknowledged it")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.recordBytes = DistributionSummary.builder("orders.kafka.record.bytes")
+                .description("Size of the encoded record values")
+                .baseUnit("bytes")
+                .tag("content.type", serializer.contentType())
+                .register(meterRegistry);
     }
 
     /**
-     * Sends product ID and quantity as a JSON message to Kafka.
+     * Sends product ID and quantity for each order item to Kafka as one batch.
      *
      * @param orderItems the list of order items
+     * @return a future completed with the outcome of every record once all have been acknowledged or failed
      */
-    public void sendOrder(List<OrderItemRequest> orderItems) {
-        for (OrderItemRequest item : orderItems) {
-            try {
-                ProductOrderMessage message = new ProductOrderMessage(item.getProductId(), item.getQuantity());
-                String jsonMessage = objectMapper.writeValueAsString(message);
-                logger.debug("Sending message to Kafka: {}", jsonMessage);
-                kafkaTemplate.send(orderTopic, jsonMessage);
-                logger.info("Successfully sent order item with Product ID: {} and Quantity: {}", item.getProductId(),
-                        item.getQuantity());
-            } catch (JsonProcessingException e) {
-                logger.info("Successfully sent order item with Product ID: {} and Quantity: {}", item.getProductId(),
-                        item.getQuantity());
-                throw new RuntimeException("Failed to serialize product order message", e);
+    public CompletableFuture<List<RecordSendResult>> sendOrder(List<OrderItemRequest> orderItems) {
+        return sendBatch(orderItems.stream()
+                .map(item -> new ProductOrderMessage(item.getProductId(), item.getQuantity()))
+                .collect(Collectors.toList()));
+    }
+
+    /**
+     * Sends product order messages to Kafka as a single pipelined burst.
+     * Records are handed to the producer without waiting for earlier acknowledgements; the number
+     * of unacknowledged records across all callers is bounded, and this method blocks while the
+     * window is full. The returned future never completes exceptionally: failures are reported
+     * per message, and messages that shared a record share its outcome.
+     *
+     * @param messages the messages to send
+     * @return a future completed with one result per message, in the same order
+     */
+    public CompletableFuture<List<RecordSendResult>> sendBatch(List<ProductOrderMessage> messages) {
+        if (serializer.maxMessagesPerRecord() > 1) {
+            return sendGrouped(messages);
+        }
+        List<CompletableFuture<RecordSendResult>> results = new ArrayList<>(messages.size());
+        for (ProductOrderMessage message : messages) {
+            results.add(send(null, message.getProductId(), List.of(message)));
+        }
+        return CompletableFuture.allOf(results.toArray(CompletableFuture[]::new))
+                .thenApply(ignored -> results.stream().map(CompletableFuture::join).collect(Collectors.toList()));
+    }
+
+    private CompletableFuture<List<RecordSendResult>> sendGrouped(List<ProductOrderMessage> messages) {
+        if (messages.isEmpty()) {
+            return CompletableFuture.completedFuture(List.of());
+        }
+        long start = System.nanoTime();
+        List<PartitionBatch> grouped;
+        try {
+            grouped = groupByPartition(messages);
+        } catch (RuntimeException e) {
+            logger.warn("Could not read the partitions of topic {}, failing {} order items so they are retried",
+                    orderTopic, messages.size(), e);
+            RecordSendResult failure = failed(messages.get(0), start, e);
+            return CompletableFuture.completedFuture(messages.stream()
+                    .map(message -> new RecordSendResult(message, -1, -1L, failure.getLatencyNanos(), e))
+                    .collect(Collectors.toList()));
+        }
+        RecordSendResult[] results = new RecordSendResult[messages.size()];
+        List<CompletableFuture<Void>> records = new ArrayList<>();
+        for (PartitionBatch record : grouped) {
+            List<ProductOrderMessage> batch = record.indexes().stream().map(messages::get).collect(Collectors.toList());
+            records.add(send(record.partition(), null, batch).thenAccept(result -> {
+                for (int index : record.indexes()) {
+                    results[index] = new RecordSendResult(messages.get(index), result.getPartition(),
+                            result.getOffset(), result.getLatencyNanos(), result.getFailure());
+                }
+            }));
+        }
+        return CompletableFuture.allOf(records.toArray(CompletableFuture[]::new))
+                .thenApply(ignored -> Arrays.asList(results));
+    }
+
+    /**
+     * Groups message indexes into records: by the partition each product ID maps to with the
+     * default partitioner, then into chunks of at most {@link ProductOrderSerializer#maxMessagesPerRecord()}.
+     * The partition count comes from the producer's cached metadata. If it cannot be read, the batch
+     * fails rather than sending unkeyed records to arbitrary partitions, which would break the
+     * per-product ordering.
+     *
+     * @throws RuntimeException if the partitions of the topic cannot be read
+     */
+    private List<PartitionBatch> groupByPartition(List<ProductOrderMessage> messages) {
+        List<PartitionInfo> partitionInfos = kafkaTemplate.partitionsFor(orderTopic);
+        if (partitionInfos == null || partitionInfos.isEmpty()) {
+            throw new IllegalStateException("No partitions known for topic " + orderTopic);
+        }
+        int partitions = partitionInfos.size();
+        Map<Integer, List<Integer>> byPartition = new LinkedHashMap<>();
+        for (int i = 0; i < messages.size(); i++) {
+            int partition = partitionOf(messages.get(i).getProductId(), partitions);
+            byPartition.computeIfAbsent(partition, p -> new ArrayList<>()).add(i);
+        }
+        List<PartitionBatch> records = new ArrayList<>();
+        int max = serializer.maxMessagesPerRecord();
+        byPartition.forEach((partition, indexes) -> {
+            for (int from = 0; from < indexes.size(); from += max) {
+                records.add(new PartitionBatch(partition, indexes.subList(from, Math.min(from + max, indexes.size()))));
             }
+        });
+        return records;
+    }
+
+    private static int partitionOf(String productId, int partitions) {
+        return Utils.toPositive(Utils.murmur2(productId.getBytes(StandardCharsets.UTF_8))) % partitions;
+    }
+
+    /**
+     * The indexes of the messages sent in one record, and the partition they are sent to.
+     */
+    private record PartitionBatch(Integer partition, List<Integer> indexes) {
+    }
+
+    private CompletableFuture<RecordSendResult> send(Integer partition, String key, List<ProductOrderMessage> batch) {
+        long start = System.nanoTime();
+        ProductOrderMessage first = batch.get(0);
+        byte[] value;
+        try {
+            value = serializer.serialize(batch);
+        } catch (RuntimeException e) {
+            logger.error("Failed to serialize {} order items starting with Product ID: {}", batch.size(),
+                    first.getProductId(), e);
+            return CompletableFuture.completedFuture(failed(first, start, e));
+        }
+
+        try {
+            inFlight.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return CompletableFuture.completedFuture(failed(first, start, e));
         }
+
+        ProducerRecord<String, byte[]> record = new ProducerRecord<>(orderTopic, partition, key, value);
+        record.headers().add(ProductOrderSerializer.CONTENT_TYPE_HEADER, contentType);
+        recordBytes.record(value.length);
+        logger.debug("Sending {} order items to Kafka in {} bytes", batch.size(), value.length);
+        try {
+            return kafkaTemplate.send(record)
+                    .handle((sendResult, ex) -> {
+                        inFlight.release();
+                        if (ex != null) {
+                            logger.warn("Failed to send {} order items starting with Product ID: {}", batch.size(),
+                                    first.getProductId(), ex);
+                            return failed(first, start, ex);
+                        }
+                        long latency = System.nanoTime() - start;
+                        ackTimer.record(latency, TimeUnit.NANOSECONDS);
+                        return new RecordSendResult(first, sendResult.getRecordMetadata().partition(),
+                                sendResult.getRecordMetadata().offset(), latency, null);
+                    });
+        } catch (RuntimeException e) {
+            inFlight.release();
+            logger.warn("Failed to send {} order items starting with Product ID: {}", batch.size(),
+                    first.getProductId(), e);
+            return CompletableFuture.completedFuture(failed(first, start, e));
+        }
+    }
+
+    private RecordSendResult failed(ProductOrderMessage message, long start, Throwable cause) {
+        Throwable reported = cause instanceof CompletionException && cause.getCause() != null ? cause.getCause() : cause;
+        meterRegistry.counter("orders.kafka.send.failures", "exception", reported.getClass().getSimpleName()).increment();
+        return new RecordSendResult(message, -1, -1L, System.nanoTime() - start, cause);
     }
 }
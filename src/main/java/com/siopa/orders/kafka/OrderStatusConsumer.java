@@ -0,0 +1,86 @@
+package com.siopa.orders.kafka;
+
+import com.siopa.orders.dto.OrderStatusChange;
+import com.siopa.orders.dto.StatusUpdateResult;
+import com.siopa.orders.models.EStatus;
+import com.siopa.orders.services.OrderService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Kafka listener that applies status changes from the delivery and store services in batches.
+ * Changes to the same order within a batch are collapsed: repeated statuses are dropped and the
+ * remaining ones are applied in order, so the order ends at its latest status. The whole batch is
+ * applied in one transaction with set-based updates grouped by target status, and its offsets are
+ * committed once that transaction has committed. The listener only starts when
+ * {@code orders.kafka.status-consumer.enabled=true}.
+ */
+@Component
+public class OrderStatusConsumer {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderStatusConsumer.class);
+
+    private final OrderService orderService;
+    private final MeterRegistry meterRegistry;
+
+    public OrderStatusConsumer(OrderService orderService, MeterRegistry meterRegistry) {
+        this.orderService = orderService;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Applies one batch of status changes.
+     *
+     * @param records the records of the batch, in offset order per partition
+     */
+    @KafkaListener(id = "order-status-consumer",
+            topics = "${spring.kafka.topic.order-status:order-status}",
+            containerFactory = "orderStatusListenerContainerFactory",
+            autoStartup = "${orders.kafka.status-consumer.enabled:false}")
+    public void onStatusChanges(List<ConsumerRecord<String, OrderStatusChange>> records) {
+        Map<String, List<EStatus>> changes = collapse(records);
+        if (changes.isEmpty()) {
+            return;
+        }
+        List<StatusUpdateResult> results = orderService.applyStatusChanges(changes);
+        for (StatusUpdateResult result : results) {
+            if (result.getOutcome() != StatusUpdateResult.Outcome.UPDATED) {
+                logger.warn("Status change of order {} to {} not applied: {}", result.getOrderId(),
+                        result.getStatus(), result.getOutcome());
+            }
+            meterRegistry.counter("orders.kafka.status.changes", "outcome", result.getOutcome().name()).increment();
+        }
+        logger.info("Processed {} status changes to {} orders from {} records", results.size(), changes.size(),
+                records.size());
+    }
+
+    /**
+     * Collapses a batch into the statuses to apply to each order, oldest first, dropping
+     * malformed records and repeats of the status just before.
+     */
+    static Map<String, List<EStatus>> collapse(List<ConsumerRecord<String, OrderStatusChange>> records) {
+        Map<String, List<EStatus>> changes = new LinkedHashMap<>();
+        for (ConsumerRecord<String, OrderStatusChange> record : records) {
+            OrderStatusChange change = record.value();
+            if (change == null || change.getOrderId() == null || change.getStatus() == null) {
+                logger.warn("Skipping malformed status change at {}-{}@{}", record.topic(), record.partition(),
+                        record.offset());
+                continue;
+            }
+            List<EStatus> statuses = changes.computeIfAbsent(change.getOrderId(), id -> new ArrayList<>());
+            if (statuses.isEmpty() || statuses.get(statuses.size() - 1) != change.getStatus()) {
+                statuses.add(change.getStatus());
+            }
+        }
+        return changes;
+    }
+}
@@ -0,0 +1,40 @@
+package com.siopa.orders.kafka;
+
+import java.util.List;
+
+/**
+ * Encodes product order messages into Kafka record values for {@link OrderProducer}.
+ * The implementation is chosen with {@code orders.kafka.format}: {@code json} (the default,
+ * one message per record) or {@code binary} (many messages per record).
+ */
+public interface ProductOrderSerializer {
+
+    /**
+     * Name of the record header carrying {@link #contentType()}.
+     */
+    String CONTENT_TYPE_HEADER = "content-type";
+
+    /**
+     * Returns the content type written to the {@value #CONTENT_TYPE_HEADER} header of every record.
+     *
+     * @return the content type of the encoded values
+     */
+    String contentType();
+
+    /**
+     * Returns the maximum number of messages encoded into one record.
+     * When this is 1, records are keyed by product ID; otherwise the producer groups the messages
+     * for the same partition into one record.
+     *
+     * @return the maximum number of messages per record
+     */
+    int maxMessagesPerRecord();
+
+    /**
+     * Encodes messages into one record value.
+     *
+     * @param messages the messages, at most {@link #maxMessagesPerRecord()} of them
+     * @return the record value
+     */
+    byte[] serialize(List<ProductOrderMessage> messages);
+}
@@ -0,0 +1,48 @@
+package com.siopa.orders.kafka;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Outcome of publishing a single product order message to Kafka.
+ * Either the record was acknowledged, in which case its partition and offset are known,
+ * or it failed and the cause is available.
+ */
+@Getter
+@AllArgsConstructor
+public class RecordSendResult {
+
+    /**
+     * The message that was published.
+     */
+    private final ProductOrderMessage message;
+
+    /**
+     * The partition the record was written to, or -1 if the send failed.
+     */
+    private final int partition;
+
+    /**
+     * The offset of the record in its partition, or -1 if the send failed.
+     */
+    private final long offset;
+
+    /**
+     * The time between handing the record to the producer and its acknowledgement or failure.
+     */
+    private final long latencyNanos;
+
+    /**
+     * The cause of the failure, or null if the record was acknowledged.
+     */
+    private final Throwable failure;
+
+    /**
+     * Indicates whether the broker acknowledged the record.
+     *
+     * @return true if the record was acknowledged
+     */
+    public boolean isSuccess() {
+        return failure == null;
+    }
+}
@@ -0,0 +1,40 @@
+package com.siopa.orders.models;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Enum values for the width of an order rollup bucket.
+ */
+public enum ERollupGranularity {
+    HOUR(ChronoUnit.HOURS),
+    DAY(ChronoUnit.DAYS);
+
+    private final ChronoUnit unit;
+
+    ERollupGranularity(ChronoUnit unit) {
+        this.unit = unit;
+    }
+
+    /**
+     * Returns the start of the bucket containing an instant.
+     *
+     * @param instant the instant
+     * @param zone    the time zone whose hours and days the buckets follow
+     * @return the start of the bucket
+     */
+    public Instant bucketStart(Instant instant, ZoneId zone) {
+        return instant.atZone(zone).truncatedTo(unit).toInstant();
+    }
+
+    /**
+     * Returns the nominal width of a bucket.
+     *
+     * @return the bucket width
+     */
+    public Duration width() {
+        return unit.getDuration();
+    }
+}
@@ -1,7 +1,14 @@
 package com.siopa.orders.models;
 
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+
 /**
  * Enum values for order status.
+ * Also defines the allowed transitions between statuses; CANCELLED and COMPLETE are terminal.
  */
 public enum EStatus {
     CANCELLED,
@@ -11,5 +18,59 @@ public enum EStatus {
     READY_FOR_COLLECTION,
     DELIVERED,
     COLLECTED,
-    COMPLETE
+    COMPLETE;
+
+    private static final Map<EStatus, Set<EStatus>> NEXT = new EnumMap<>(EStatus.class);
+    private static final Map<EStatus, Set<EStatus>> PREVIOUS = new EnumMap<>(EStatus.class);
+
+    static {
+        allow(SUBMITTED, PREPARING, CANCELLED);
+        allow(PREPARING, OUT_FOR_DELIVERY, READY_FOR_COLLECTION, CANCELLED);
+        allow(OUT_FOR_DELIVERY, DELIVERED);
+        allow(READY_FOR_COLLECTION, COLLECTED, CANCELLED);
+        allow(DELIVERED, COMPLETE);
+        allow(COLLECTED, COMPLETE);
+
+        for (EStatus status : values()) {
+            NEXT.putIfAbsent(status, EnumSet.noneOf(EStatus.class));
+            PREVIOUS.putIfAbsent(status, EnumSet.noneOf(EStatus.class));
+            NEXT.put(status, Collections.unmodifiableSet(NEXT.get(status)));
+            PREVIOUS.put(status, Collections.unmodifiableSet(PREVIOUS.get(status)));
+        }
+    }
+
+    private static void allow(EStatus from, EStatus... to) {
+        for (EStatus next : to) {
+            NEXT.computeIfAbsent(from, s -> EnumSet.noneOf(EStatus.class)).add(next);
+            PREVIOUS.computeIfAbsent(next, s -> EnumSet.noneOf(EStatus.class)).add(from);
+        }
+    }
+
+    /**
+     * Indicates whether an order in this status may move to the given status.
+     *
+     * @param next the target status
+     * @return true if the transition is allowed
+     */
+    public boolean canTransitionTo(EStatus next) {
+        return NEXT.get(this).contains(next);
+    }
+
+    /**
+     * Returns the statuses an order may move to from this status.
+     *
+     * @return the allowed target statuses
+     */
+    public Set<EStatus> nextStatuses() {
+        return NEXT.get(this);
+    }
+
+    /**
+     * Returns the statuses from which an order may move to this status.
+     *
+     * @return the allowed source statuses, empty if no transition leads here
+     */
+    public Set<EStatus> previousStatuses() {
+        return PREVIOUS.get(this);
+    }
 }
@@ -2,6 +2,8 @@ package com.siopa.orders.models;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 import org.hibernate.annotations.UuidGenerator;
@@ -16,7 +18,11 @@ import java.util.List;
  * pricing, delivery details, and status.
  */
 @Entity
-@Table(name = "orders")
+@Table(name = "orders", indexes = {
+        @Index(name = "idx_orders_status_created", columnList = "status, crtdTimeStamp"),
+        @Index(name = "idx_orders_customer_created", columnList = "customerID, crtdTimeStamp, orderId"),
+        @Index(name = "idx_orders_updated", columnList = "uptdTimeStamp, orderId")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -26,10 +32,11 @@ public class Order {
 
     /**
      * Unique identifier for the order.
-     * This is stored as a string but expected to be in UUID format.
+     * This is a time-ordered version 7 UUID, held as a string. It is stored as varchar by default,
+     * or as a native uuid column once db/native-uuid-keys.sql has been applied.
      */
     @Id
-    @UuidGenerator
+    @UuidGenerator(algorithm = UuidV7Generator.class)
     @Column(name = "order_id", updatable = false, nullable = false)
     private String orderId;
 
@@ -122,6 +129,14 @@ public class Order {
     @Column(nullable = false)
     private EStatus status;
 
+    /**
+     * The status the order had before its last status change, or null if it has never changed.
+     * Set by the same conditional update that changes the status.
+     */
+    @Enumerated(EnumType.STRING)
+    @Column
+    private EStatus previousStatus;
+
     /**
      * The latitude of the customer's location (for delivery tracking purposes).
      */
@@ -148,10 +163,21 @@ public class Order {
     @UpdateTimestamp
     private Date uptdTimeStamp;
 
+    /**
+     * Version of the order, incremented on every change.
+     * Used for optimistic locking and, with the update timestamp, as the order's ETag.
+     */
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private long version;
+
     /**
      * List of items included in the order.
      * This represents a one-to-many relationship between an order and its items.
+     * When loaded lazily, items are initialized for up to 100 orders per query.
      */
+    @BatchSize(size = 100)
     @OneToMany(mappedBy = "order", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<OrderItem> orderItems;
 }
@@ -22,10 +22,11 @@ public class OrderItem {
 
     /**
      * Unique identifier for the order item.
-     * This is stored as a string but expected to be in UUID format.
+     * This is a time-ordered version 7 UUID, held as a string. It is stored as varchar by default,
+     * or as a native uuid column once db/native-uuid-keys.sql has been applied.
      */
     @Id
-    @UuidGenerator
+    @UuidGenerator(algorithm = UuidV7Generator.class)
     @Column(name = "order_item_id", updatable = false, nullable = false)
     private String orderItemId;
 
@@ -0,0 +1,67 @@
+package com.siopa.orders.models;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.util.Date;
+
+/**
+ * Entity representing a pending inventory message in the transactional outbox.
+ * Rows are written in the same transaction as the order they belong to and are
+ * relayed to Kafka asynchronously, so a message exists if and only if its order was committed.
+ */
+@Entity
+@Table(name = "order_outbox", indexes = @Index(name = "idx_order_outbox_unsent", columnList = "sentTimeStamp, id"))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderOutbox {
+
+    /**
+     * Sequence-generated identifier, which also defines relay order.
+     * A pooled sequence keeps outbox inserts eligible for JDBC batching.
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_outbox_seq")
+    @SequenceGenerator(name = "order_outbox_seq", sequenceName = "order_outbox_seq", allocationSize = 50)
+    private Long id;
+
+    /**
+     * The order that produced this message.
+     */
+    @Column(nullable = false)
+    private String orderId;
+
+    /**
+     * The store the order was placed with.
+     */
+    @Column(nullable = false)
+    private String storeID;
+
+    /**
+     * The product whose inventory should be decremented.
+     */
+    @Column(nullable = false)
+    private String productId;
+
+    /**
+     * The quantity of the product ordered.
+     */
+    @Column(nullable = false)
+    private int quantity;
+
+    /**
+     * Timestamp indicating when the message was enqueued.
+     */
+    @CreationTimestamp
+    private Date crtdTimeStamp;
+
+    /**
+     * Timestamp indicating when the message was acknowledged by Kafka, or null while pending.
+     */
+    @Column
+    private Date sentTimeStamp;
+}
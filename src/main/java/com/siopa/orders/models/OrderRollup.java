@@ -0,0 +1,101 @@
+package com.siopa.orders.models;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.util.Date;
+
+/**
+ * Entity holding the revenue and volume of one store's orders over one hour or day.
+ * Orders are attributed to the bucket in which they were created; cancellations and
+ * completions are counted against that same bucket. Rows are maintained incrementally
+ * by {@link com.siopa.orders.services.OrderRollups}.
+ */
+@Entity
+@Table(name = "order_rollups", indexes = {
+        @Index(name = "idx_order_rollups_bucket", columnList = "storeID, granularity, bucketStart", unique = true),
+        @Index(name = "idx_order_rollups_granularity_bucket", columnList = "granularity, bucketStart")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderRollup {
+
+    /**
+     * Sequence-generated identifier.
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_rollups_seq")
+    @SequenceGenerator(name = "order_rollups_seq", sequenceName = "order_rollups_seq", allocationSize = 50)
+    private Long id;
+
+    /**
+     * The store the orders were placed with.
+     */
+    @Column(nullable = false)
+    private String storeID;
+
+    /**
+     * The width of the bucket.
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private ERollupGranularity granularity;
+
+    /**
+     * The start of the bucket.
+     */
+    @Column(nullable = false)
+    private Date bucketStart;
+
+    /**
+     * The number of orders placed.
+     */
+    @Column(nullable = false)
+    private long orderCount;
+
+    /**
+     * The number of items ordered, counting quantities.
+     */
+    @Column(nullable = false)
+    private long itemCount;
+
+    /**
+     * The total cost of the orders placed, including delivery fees.
+     */
+    @Column(nullable = false)
+    private BigDecimal totalCost;
+
+    /**
+     * The delivery fees of the orders placed.
+     */
+    @Column(nullable = false)
+    private BigDecimal deliveryFees;
+
+    /**
+     * The number of those orders since cancelled.
+     */
+    @Column(nullable = false)
+    private long cancelledCount;
+
+    /**
+     * The total cost of the orders since cancelled.
+     */
+    @Column(nullable = false)
+    private BigDecimal cancelledTotalCost;
+
+    /**
+     * The number of those orders since completed.
+     */
+    @Column(nullable = false)
+    private long completedCount;
+
+    /**
+     * The total cost of the orders since completed.
+     */
+    @Column(nullable = false)
+    private BigDecimal completedTotalCost;
+}
@@ -0,0 +1,92 @@
+package com.siopa.orders.models;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.util.Date;
+
+/**
+ * Entity holding a change to the rollups of one order that has not yet been added to the
+ * {@link OrderRollup} rows. Rows are written in the same transaction as the order change they
+ * describe, so a change is counted if and only if it was committed, and are folded into the
+ * rollups and deleted by {@link com.siopa.orders.services.OrderRollups}.
+ */
+@Entity
+@Table(name = "order_rollup_deltas")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderRollupDelta {
+
+    /**
+     * Sequence-generated identifier, which also defines the order deltas are applied in.
+     * A pooled sequence keeps delta inserts eligible for JDBC batching.
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_rollup_deltas_seq")
+    @SequenceGenerator(name = "order_rollup_deltas_seq", sequenceName = "order_rollup_deltas_seq", allocationSize = 50)
+    private Long id;
+
+    /**
+     * The store the order was placed with.
+     */
+    @Column(nullable = false)
+    private String storeID;
+
+    /**
+     * The creation time of the order, which decides the buckets the change is counted in.
+     */
+    @Column(nullable = false)
+    private Date orderCreated;
+
+    /**
+     * The change in the number of orders placed.
+     */
+    @Column(nullable = false)
+    private long orderCount;
+
+    /**
+     * The change in the number of items ordered.
+     */
+    @Column(nullable = false)
+    private long itemCount;
+
+    /**
+     * The change in the total cost of the orders placed.
+     */
+    @Column(nullable = false)
+    private BigDecimal totalCost;
+
+    /**
+     * The change in the delivery fees of the orders placed.
+     */
+    @Column(nullable = false)
+    private BigDecimal deliveryFees;
+
+    /**
+     * The change in the number of cancelled orders.
+     */
+    @Column(nullable = false)
+    private long cancelledCount;
+
+    /**
+     * The change in the total cost of cancelled orders.
+     */
+    @Column(nullable = false)
+    private BigDecimal cancelledTotalCost;
+
+    /**
+     * The change in the number of completed orders.
+     */
+    @Column(nullable = false)
+    private long completedCount;
+
+    /**
+     * The change in the total cost of completed orders.
+     */
+    @Column(nullable = false)
+    private BigDecimal completedTotalCost;
+}
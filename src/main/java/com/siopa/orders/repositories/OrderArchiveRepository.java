@@ -0,0 +1,164 @@
+package com.siopa.orders.repositories;
+
+import com.siopa.orders.models.EStatus;
+import com.siopa.orders.models.Order;
+import com.siopa.orders.models.OrderItem;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.Collection;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * Repository for the partitioned archive of orders in terminal states.
+ * The archive is plain PostgreSQL tables (see db/orders-archive.sql) rather than mapped entities,
+ * so orders read back from it are detached {@link Order} instances.
+ */
+@Repository
+public class OrderArchiveRepository {
+
+    private static final String ORDER_COLUMNS = "order_id, customerid, customer_email, forename, surname, "
+            + "phone_number, storeid, total_item_cost, is_delivery, is_collection, delivery_fee, delivery_address, "
+            + "billing_address, total_cost, status, previous_status, customer_lat, customer_lng, crtd_time_stamp, "
+            + "uptd_time_stamp";
+
+    private static final String ITEM_COLUMNS = "order_item_id, order_id, product_id, product_name, quantity, price";
+
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyy_MM");
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public OrderArchiveRepository(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Locks and retrieves the oldest orders eligible for archival.
+     *
+     * @param statuses the terminal statuses to archive
+     * @param cutoff   only orders created before this time are eligible
+     * @param limit    the maximum number of orders to return
+     * @return detached orders holding only their ID, customer, store, status and creation time, oldest first
+     */
+    public List<Order> lockArchivable(Collection<EStatus> statuses, Date cutoff, int limit) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("statuses", statuses.stream().map(Enum::name).collect(Collectors.toList()))
+                .addValue("cutoff", cutoff)
+                .addValue("limit", limit);
+        return jdbcTemplate.query("SELECT order_id, customerid, storeid, status, crtd_time_stamp FROM orders "
+                        + "WHERE status IN (:statuses) AND crtd_time_stamp < :cutoff "
+                        + "ORDER BY crtd_time_stamp LIMIT :limit FOR UPDATE SKIP LOCKED", params,
+                (rs, rowNum) -> Order.builder()
+                        .orderId(rs.getString("order_id"))
+                        .customerID(rs.getString("customerid"))
+                        .storeID(rs.getString("storeid"))
+                        .status(EStatus.valueOf(rs.getString("status")))
+                        .crtdTimeStamp(rs.getTimestamp("crtd_time_stamp"))
+                        .build());
+    }
+
+    /**
+     * Creates the archive partitions covering the given month if they do not exist.
+     *
+     * @param month the calendar month, in the time zone the timestamps are stored in
+     */
+    public void ensurePartition(YearMonth month) {
+        String suffix = month.format(PARTITION_SUFFIX);
+        String from = month.atDay(1).toString();
+        String to = month.plusMonths(1).atDay(1).toString();
+        for (String table : List.of("orders_archive", "order_items_archive")) {
+            jdbcTemplate.getJdbcTemplate().execute("CREATE TABLE IF NOT EXISTS " + table + "_" + suffix
+                    + " PARTITION OF " + table + " FOR VALUES FROM ('" + from + "') TO ('" + to + "')");
+        }
+    }
+
+    /**
+     * Copies the given orders and their items into the archive and deletes them from the live tables.
+     * Must run inside a transaction so the copy and the delete commit together.
+     *
+     * @param orderIds the IDs of the orders to move
+     * @return the number of orders moved
+     */
+    public int moveToArchive(Collection<String> orderIds) {
+        MapSqlParameterSource params = new MapSqlParameterSource("orderIds", orderIds);
+        jdbcTemplate.update("INSERT INTO orders_archive (" + ORDER_COLUMNS + ") "
+                + "SELECT " + ORDER_COLUMNS + " FROM orders WHERE order_id IN (:orderIds)", params);
+        jdbcTemplate.update("INSERT INTO order_items_archive (" + ITEM_COLUMNS + ", crtd_time_stamp) "
+                + "SELECT i.order_item_id, i.order_id, i.product_id, i.product_name, i.quantity, i.price, "
+                + "o.crtd_time_stamp FROM order_items i JOIN orders o ON o.order_id = i.order_id "
+                + "WHERE i.order_id IN (:orderIds)", params);
+        jdbcTemplate.update("DELETE FROM order_items WHERE order_id IN (:orderIds)", params);
+        return jdbcTemplate.update("DELETE FROM orders WHERE order_id IN (:orderIds)", params);
+    }
+
+    /**
+     * Retrieves an archived order together with its items.
+     *
+     * @param orderId the unique identifier of the order
+     * @return the archived order, if it exists
+     */
+    public Optional<Order> findById(String orderId) {
+        MapSqlParameterSource params = new MapSqlParameterSource("orderId", orderId);
+        List<Order> orders = jdbcTemplate.query("SELECT " + ORDER_COLUMNS + " FROM orders_archive "
+                + "WHERE order_id = :orderId", params, (rs, rowNum) -> mapOrder(rs));
+        if (orders.isEmpty()) {
+            return Optional.empty();
+        }
+        Order order = orders.get(0);
+        order.setOrderItems(jdbcTemplate.query("SELECT " + ITEM_COLUMNS + " FROM order_items_archive "
+                + "WHERE order_id = :orderId", params, (rs, rowNum) -> mapItem(rs, order)));
+        return Optional.of(order);
+    }
+
+    private static Order mapOrder(ResultSet rs) throws SQLException {
+        String previousStatus = rs.getString("previous_status");
+        return Order.builder()
+                .orderId(rs.getString("order_id"))
+                .customerID(rs.getString("customerid"))
+                .customerEmail(rs.getString("customer_email"))
+                .forename(rs.getString("forename"))
+                .surname(rs.getString("surname"))
+                .phoneNumber(rs.getString("phone_number"))
+                .storeID(rs.getString("storeid"))
+                .totalItemCost(rs.getBigDecimal("total_item_cost"))
+                .isDelivery(rs.getBoolean("is_delivery"))
+                .isCollection(rs.getBoolean("is_collection"))
+                .deliveryFee(rs.getBigDecimal("delivery_fee"))
+                .deliveryAddress(rs.getString("delivery_address"))
+                .billingAddress(rs.getString("billing_address"))
+                .totalCost(rs.getBigDecimal("total_cost"))
+                .status(EStatus.valueOf(rs.getString("status")))
+                .previousStatus(previousStatus != null ? EStatus.valueOf(previousStatus) : null)
+                .customerLat(rs.getDouble("customer_lat"))
+                .customerLng(rs.getDouble("customer_lng"))
+                .crtdTimeStamp(toDate(rs.getTimestamp("crtd_time_stamp")))
+                .uptdTimeStamp(toDate(rs.getTimestamp("uptd_time_stamp")))
+                .build();
+    }
+
+    private static OrderItem mapItem(ResultSet rs, Order order) throws SQLException {
+        return OrderItem.builder()
+                .orderItemId(rs.getString("order_item_id"))
+                .productId(rs.getString("product_id"))
+                .productName(rs.getString("product_name"))
+                .quantity(rs.getInt("quantity"))
+                .price(rs.getBigDecimal("price"))
+                .order(order)
+                .build();
+    }
+
+    private static Date toDate(Timestamp timestamp) {
+        return timestamp != null ? new Date(timestamp.getTime()) : null;
+    }
+}
@@ -0,0 +1,33 @@
+package com.siopa.orders.repositories;
+
+import com.siopa.orders.models.EStatus;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Repository fragment for reading only selected scalar fields of orders (sparse fieldsets).
+ * Rows are returned as maps keyed by the field's JSON name, without hydrating or tracking entities.
+ */
+public interface OrderFieldRepository {
+
+    /**
+     * Retrieves the selected fields of a page of orders in order ID order.
+     *
+     * @param fields the JSON names of the fields to select
+     * @param after  the ID of the last order of the previous page, or null for the first page
+     * @param limit  the maximum number of orders to return
+     * @return one map per order, with the fields in the requested order
+     */
+    List<Map<String, Object>> findFields(Set<String> fields, String after, int limit);
+
+    /**
+     * Retrieves the selected fields of the orders with the given status.
+     *
+     * @param fields the JSON names of the fields to select
+     * @param status the status of the orders
+     * @return one map per order, with the fields in the requested order
+     */
+    List<Map<String, Object>> findFieldsByStatus(Set<String> fields, EStatus status);
+}
@@ -0,0 +1,102 @@
+package com.siopa.orders.repositories;
+
+import com.siopa.orders.exceptions.UnknownFieldException;
+import com.siopa.orders.models.EStatus;
+import com.siopa.orders.models.Order;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TupleElement;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Criteria implementation of {@link OrderFieldRepository}.
+ * Only the scalar columns of the orders table can be selected; field names are checked against
+ * a fixed whitelist before they reach the query.
+ */
+class OrderFieldRepositoryImpl implements OrderFieldRepository {
+
+    /**
+     * Selectable fields, from the JSON name used in responses to the entity attribute.
+     */
+    private static final Map<String, String> FIELDS = Map.ofEntries(
+            Map.entry("orderId", "orderId"),
+            Map.entry("customerID", "customerID"),
+            Map.entry("customerEmail", "customerEmail"),
+            Map.entry("forename", "forename"),
+            Map.entry("surname", "surname"),
+            Map.entry("phoneNumber", "phoneNumber"),
+            Map.entry("storeID", "storeID"),
+            Map.entry("totalItemCost", "totalItemCost"),
+            Map.entry("delivery", "isDelivery"),
+            Map.entry("collection", "isCollection"),
+            Map.entry("deliveryFee", "deliveryFee"),
+            Map.entry("deliveryAddress", "deliveryAddress"),
+            Map.entry("billingAddress", "billingAddress"),
+            Map.entry("totalCost", "totalCost"),
+            Map.entry("status", "status"),
+            Map.entry("previousStatus", "previousStatus"),
+            Map.entry("customerLat", "customerLat"),
+            Map.entry("customerLng", "customerLng"),
+            Map.entry("crtdTimeStamp", "crtdTimeStamp"),
+            Map.entry("uptdTimeStamp", "uptdTimeStamp"));
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Map<String, Object>> findFields(Set<String> fields, String after, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Order> order = query.from(Order.class);
+        query.multiselect(selections(order, fields));
+        if (after != null) {
+            query.where(cb.greaterThan(order.get("orderId"), after));
+        }
+        query.orderBy(cb.asc(order.get("orderId")));
+        return toMaps(entityManager.createQuery(query).setMaxResults(limit).getResultList());
+    }
+
+    @Override
+    public List<Map<String, Object>> findFieldsByStatus(Set<String> fields, EStatus status) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Order> order = query.from(Order.class);
+        query.multiselect(selections(order, fields));
+        query.where(cb.equal(order.get("status"), status));
+        return toMaps(entityManager.createQuery(query).getResultList());
+    }
+
+    private static List<Selection<?>> selections(Root<Order> order, Set<String> fields) {
+        List<Selection<?>> selections = new ArrayList<>(fields.size());
+        for (String field : fields) {
+            String attribute = FIELDS.get(field);
+            if (attribute == null) {
+                throw new UnknownFieldException(field);
+            }
+            selections.add(order.get(attribute).alias(field));
+        }
+        return selections;
+    }
+
+    private static List<Map<String, Object>> toMaps(List<Tuple> tuples) {
+        List<Map<String, Object>> rows = new ArrayList<>(tuples.size());
+        for (Tuple tuple : tuples) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            for (TupleElement<?> element : tuple.getElements()) {
+                row.put(element.getAlias(), tuple.get(element));
+            }
+            rows.add(row);
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,53 @@
+package com.siopa.orders.repositories;
+
+import com.siopa.orders.models.OrderOutbox;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Repository interface for managing `OrderOutbox` entries.
+ * Provides the locking and bookkeeping queries used by the outbox relay.
+ */
+@Repository
+public interface OrderOutboxRepository extends JpaRepository<OrderOutbox, Long> {
+
+    /**
+     * Locks and retrieves the oldest unsent outbox entries.
+     * Rows already locked by another relay instance are skipped, so several nodes
+     * can drain the outbox concurrently without sending the same entry twice.
+     *
+     * @param limit the maximum number of entries to lock
+     * @return the locked entries in relay order
+     */
+    @Query(value = "SELECT * FROM order_outbox WHERE sent_time_stamp IS NULL ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED",
+            nativeQuery = true)
+    List<OrderOutbox> lockNextUnsent(@Param("limit") int limit);
+
+    /**
+     * Marks the given outbox entries as sent.
+     *
+     * @param ids    the identifiers of the entries acknowledged by Kafka
+     * @param sentAt the time of acknowledgement
+     * @return the number of entries updated
+     */
+    @Modifying
+    @Query("UPDATE OrderOutbox o SET o.sentTimeStamp = :sentAt WHERE o.id IN :ids")
+    int markSent(@Param("ids") Collection<Long> ids, @Param("sentAt") Date sentAt);
+
+    /**
+     * Deletes entries that were sent before the given cutoff.
+     *
+     * @param cutoff entries sent before this time are deleted
+     * @return the number of entries deleted
+     */
+    @Modifying
+    @Query("DELETE FROM OrderOutbox o WHERE o.sentTimeStamp < :cutoff")
+    int deleteSentBefore(@Param("cutoff") Date cutoff);
+}
@@ -1,32 +1,314 @@
 package com.siopa.orders.repositories;
 
+import com.siopa.orders.dto.OrderSummary;
 import com.siopa.orders.models.EStatus;
 import com.siopa.orders.models.Order;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.Date;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
 /**
  * Repository interface for managing `Order` entities.
- * Provides CRUD operations and custom queries for retrieving orders by customer ID and status.
+ * Provides CRUD operations and custom queries for retrieving orders by customer and status.
  */
 @Repository
-public interface OrderRepository extends JpaRepository<Order, String> {
+public interface OrderRepository extends JpaRepository<Order, String>, OrderFieldRepository {
 
     /**
-     * Retrieves a list of orders by the given customer ID.
+     * Retrieves the most recent orders of a customer as summaries, newest first.
      *
      * @param customerID the unique identifier of the customer
-     * @return a list of orders belonging to the specified customer
+     * @param limit      the maximum number of orders to return
+     * @return the customer's most recent orders
+     */
+    @Query("SELECT new com.siopa.orders.dto.OrderSummary(o.orderId, o.storeID, o.status, o.totalCost, o.crtdTimeStamp) " +
+            "FROM Order o WHERE o.customerID = :customerID ORDER BY o.crtdTimeStamp DESC, o.orderId DESC")
+    List<OrderSummary> findSummariesByCustomerID(@Param("customerID") String customerID, Limit limit);
+
+    /**
+     * Retrieves the orders of a customer that sort before the given position (keyset pagination),
+     * as summaries, newest first.
+     *
+     * @param customerID    the unique identifier of the customer
+     * @param createdBefore the creation timestamp of the last order of the previous page
+     * @param orderId       the ID of the last order of the previous page
+     * @param limit         the maximum number of orders to return
+     * @return the customer's orders that sort after the given position
      */
-    List<Order> findByCustomerID(String customerID);
+    @Query("SELECT new com.siopa.orders.dto.OrderSummary(o.orderId, o.storeID, o.status, o.totalCost, o.crtdTimeStamp) " +
+            "FROM Order o WHERE o.customerID = :customerID " +
+            "AND (o.crtdTimeStamp < :createdBefore OR (o.crtdTimeStamp = :createdBefore AND o.orderId < :orderId)) " +
+            "ORDER BY o.crtdTimeStamp DESC, o.orderId DESC")
+    List<OrderSummary> findSummariesByCustomerIDBefore(@Param("customerID") String customerID,
+                                                       @Param("createdBefore") Date createdBefore,
+                                                       @Param("orderId") String orderId,
+                                                       Limit limit);
 
     /**
      * Retrieves a list of orders by their status.
+     * Order items are fetched in the same query.
      *
      * @param status the status of the orders
      * @return a list of orders with the specified status
      */
+    @EntityGraph(attributePaths = "orderItems")
     List<Order> findByStatus(EStatus status);
+
+    /**
+     * Retrieves the orders with the given status as summaries.
+     *
+     * @param status the status of the orders
+     * @return summaries of the orders with the specified status
+     */
+    @Query("SELECT new com.siopa.orders.dto.OrderSummary(o.orderId, o.storeID, o.status, o.totalCost, o.crtdTimeStamp) " +
+            "FROM Order o WHERE o.status = :status")
+    List<OrderSummary> findSummariesByStatus(@Param("status") EStatus status);
+
+    /**
+     * Retrieves the first page of orders as summaries in order ID order.
+     *
+     * @param limit the maximum number of orders to return
+     * @return summaries of the first orders
+     */
+    @Query("SELECT new com.siopa.orders.dto.OrderSummary(o.orderId, o.storeID, o.status, o.totalCost, o.crtdTimeStamp) " +
+            "FROM Order o ORDER BY o.orderId")
+    List<OrderSummary> findSummaries(Limit limit);
+
+    /**
+     * Retrieves the page of orders that follows the given order ID as summaries (keyset pagination).
+     *
+     * @param orderId the ID of the last order of the previous page
+     * @param limit   the maximum number of orders to return
+     * @return summaries of the orders that sort after the given ID
+     */
+    @Query("SELECT new com.siopa.orders.dto.OrderSummary(o.orderId, o.storeID, o.status, o.totalCost, o.crtdTimeStamp) " +
+            "FROM Order o WHERE o.orderId > :orderId ORDER BY o.orderId")
+    List<OrderSummary> findSummariesAfter(@Param("orderId") String orderId, Limit limit);
+
+    /**
+     * Retrieves an order together with its items in a single query.
+     *
+     * @param orderId the unique identifier of the order
+     * @return the order, if it exists
+     */
+    @EntityGraph(attributePaths = "orderItems")
+    Optional<Order> findWithItemsByOrderId(String orderId);
+
+    /**
+     * Retrieves the version and update timestamp of an order without loading it.
+     *
+     * @param orderId the unique identifier of the order
+     * @return the order's version, if the order exists
+     */
+    @Query("SELECT o.version AS version, o.uptdTimeStamp AS uptdTimeStamp FROM Order o WHERE o.orderId = :orderId")
+    Optional<OrderVersion> findVersionByOrderId(@Param("orderId") String orderId);
+
+    /**
+     * Retrieves the IDs of the first page of orders in order ID order.
+     *
+     * @param limit the maximum number of IDs to return
+     * @return the first order IDs
+     */
+    @Query("SELECT o.orderId FROM Order o ORDER BY o.orderId")
+    List<String> findOrderIds(Limit limit);
+
+    /**
+     * Retrieves the IDs of the page of orders that follows the given order ID (keyset pagination).
+     *
+     * @param orderId the ID of the last order of the previous page
+     * @param limit   the maximum number of IDs to return
+     * @return the order IDs that sort after the given ID
+     */
+    @Query("SELECT o.orderId FROM Order o WHERE o.orderId > :orderId ORDER BY o.orderId")
+    List<String> findOrderIdsAfter(@Param("orderId") String orderId, Limit limit);
+
+    /**
+     * Retrieves the keys of the first page of the change feed, oldest change first.
+     * Only changes made before the given upper bound are returned.
+     *
+     * @param updatedBefore the exclusive upper bound on the update timestamp
+     * @param limit         the maximum number of keys to return
+     * @return the keys of the oldest changed orders
+     */
+    @Query("SELECT o.orderId AS orderId, o.uptdTimeStamp AS uptdTimeStamp FROM Order o " +
+            "WHERE o.uptdTimeStamp < :updatedBefore ORDER BY o.uptdTimeStamp, o.orderId")
+    List<ChangedOrder> findChangedOrders(@Param("updatedBefore") Date updatedBefore, Limit limit);
+
+    /**
+     * Retrieves the keys of the page of the change feed that follows the given position
+     * (keyset pagination), oldest change first. Only changes made before the given upper bound
+     * are returned.
+     *
+     * @param updatedAfter  the update timestamp of the last order of the previous page
+     * @param orderId       the ID of the last order of the previous page
+     * @param updatedBefore the exclusive upper bound on the update timestamp
+     * @param limit         the maximum number of keys to return
+     * @return the keys of the orders changed after the given position
+     */
+    @Query("SELECT o.orderId AS orderId, o.uptdTimeStamp AS uptdTimeStamp FROM Order o " +
+            "WHERE (o.uptdTimeStamp > :updatedAfter OR (o.uptdTimeStamp = :updatedAfter AND o.orderId > :orderId)) " +
+            "AND o.uptdTimeStamp < :updatedBefore ORDER BY o.uptdTimeStamp, o.orderId")
+    List<ChangedOrder> findChangedOrdersAfter(@Param("updatedAfter") Date updatedAfter,
+                                              @Param("orderId") String orderId,
+                                              @Param("updatedBefore") Date updatedBefore,
+                                              Limit limit);
+
+    /**
+     * Retrieves the given orders together with their items in a single query.
+     * Used as the second step of paged reads: paging on IDs first keeps the row limit in
+     * the database, which a collection fetch join would otherwise force into memory.
+     *
+     * @param orderIds the IDs of the orders to load
+     * @return the orders in order ID order
+     */
+    @Query("SELECT o FROM Order o LEFT JOIN FETCH o.orderItems WHERE o.orderId IN :orderIds ORDER BY o.orderId")
+    List<Order> findWithItemsByOrderIdIn(@Param("orderIds") Collection<String> orderIds);
+
+    /**
+     * Moves an order to a new status if, and only if, its current status is one of the given ones.
+     * The check and the update are a single statement, so concurrent transitions of the same order
+     * are serialized by the database. The status being replaced is kept as the previous status.
+     *
+     * @param orderId      the unique identifier of the order
+     * @param status       the new status
+     * @param fromStatuses the statuses the order may currently have
+     * @param updatedAt    the modification timestamp to record
+     * @return 1 if the order was updated, 0 if it does not exist or its status was not allowed
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Order o SET o.previousStatus = o.status, o.status = :status, o.uptdTimeStamp = :updatedAt, "
+            + "o.version = o.version + 1 "
+            + "WHERE o.orderId = :orderId AND o.status IN :fromStatuses")
+    int transitionStatus(@Param("orderId") String orderId,
+                         @Param("status") EStatus status,
+                         @Param("fromStatuses") Collection<EStatus> fromStatuses,
+                         @Param("updatedAt") Date updatedAt);
+
+    /**
+     * Moves every given order whose current status is one of the given ones to a new status,
+     * in a single set-based statement. The status being replaced is kept as the previous status.
+     *
+     * @param orderIds     the unique identifiers of the orders
+     * @param status       the new status
+     * @param fromStatuses the statuses the orders may currently have
+     * @param updatedAt    the modification timestamp to record
+     * @return the number of orders updated
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Order o SET o.previousStatus = o.status, o.status = :status, o.uptdTimeStamp = :updatedAt, "
+            + "o.version = o.version + 1 "
+            + "WHERE o.orderId IN :orderIds AND o.status IN :fromStatuses")
+    int transitionStatuses(@Param("orderIds") Collection<String> orderIds,
+                           @Param("status") EStatus status,
+                           @Param("fromStatuses") Collection<EStatus> fromStatuses,
+                           @Param("updatedAt") Date updatedAt);
+
+    /**
+     * Retrieves the given orders and locks their rows until the end of the transaction.
+     * Rows are locked in ID order, so concurrent batches over overlapping orders cannot deadlock.
+     *
+     * @param orderIds the unique identifiers of the orders
+     * @return the orders that exist, ordered by ID
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT o FROM Order o WHERE o.orderId IN :orderIds ORDER BY o.orderId")
+    List<Order> findAllForUpdate(@Param("orderIds") Collection<String> orderIds);
+
+    /**
+     * Counts orders grouped by store and status.
+     *
+     * @return one row per store and status that has at least one order
+     */
+    @Query("SELECT o.storeID AS storeID, o.status AS status, COUNT(o) AS count FROM Order o GROUP BY o.storeID, o.status")
+    List<StoreStatusCount> countByStoreAndStatus();
+
+    /**
+     * Lists the customer locations of delivery orders with any of the given statuses.
+     *
+     * @param statuses the statuses to include
+     * @return one row per matching order
+     */
+    @Query("SELECT o.orderId AS orderId, o.storeID AS storeID, o.status AS status, " +
+            "o.customerLat AS customerLat, o.customerLng AS customerLng " +
+            "FROM Order o WHERE o.isDelivery = true AND o.status IN :statuses")
+    List<DeliveryLocation> findDeliveryLocations(@Param("statuses") Collection<EStatus> statuses);
+
+    /**
+     * Streams every order with its items in order ID order using a server-side cursor.
+     * Rows are fetched from the database in chunks rather than loaded all at once,
+     * so the caller must consume the stream inside a transaction and close it.
+     *
+     * @return a stream of all orders
+     */
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT o FROM Order o LEFT JOIN FETCH o.orderItems ORDER BY o.orderId")
+    Stream<Order> streamAllByOrderId();
+
+    /**
+     * Projection of the version of one order.
+     */
+    interface OrderVersion {
+
+        long getVersion();
+
+        Date getUptdTimeStamp();
+    }
+
+    /**
+     * Projection of the change feed position of one order.
+     */
+    interface ChangedOrder {
+
+        String getOrderId();
+
+        Date getUptdTimeStamp();
+    }
+
+    /**
+     * Projection of the number of orders in one store with one status.
+     */
+    interface StoreStatusCount {
+
+        String getStoreID();
+
+        EStatus getStatus();
+
+        long getCount();
+    }
+
+    /**
+     * Projection of the customer location of one delivery order.
+     */
+    interface DeliveryLocation {
+
+        String getOrderId();
+
+        String getStoreID();
+
+        EStatus getStatus();
+
+        double getCustomerLat();
+
+        double getCustomerLng();
+    }
 }
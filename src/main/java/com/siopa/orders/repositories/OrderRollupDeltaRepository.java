@@ -0,0 +1,41 @@
+package com.siopa.orders.repositories;
+
+import com.siopa.orders.models.OrderRollupDelta;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Repository interface for managing `OrderRollupDelta` rows.
+ * Provides the locking and cleanup queries used to fold deltas into the rollups.
+ */
+@Repository
+public interface OrderRollupDeltaRepository extends JpaRepository<OrderRollupDelta, Long> {
+
+    /**
+     * Locks and retrieves the oldest pending deltas.
+     * Rows already locked by another node are skipped, so several nodes can fold deltas
+     * concurrently without counting the same delta twice.
+     *
+     * @param limit the maximum number of deltas to lock
+     * @return the locked deltas, oldest first
+     */
+    @Query(value = "SELECT * FROM order_rollup_deltas ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED",
+            nativeQuery = true)
+    List<OrderRollupDelta> lockNext(@Param("limit") int limit);
+
+    /**
+     * Deletes the given deltas once they have been added to the rollups.
+     *
+     * @param ids the identifiers of the deltas
+     * @return the number of deltas deleted
+     */
+    @Modifying
+    @Query("DELETE FROM OrderRollupDelta d WHERE d.id IN :ids")
+    int deleteByIds(@Param("ids") Collection<Long> ids);
+}
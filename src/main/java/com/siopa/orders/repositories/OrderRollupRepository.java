@@ -0,0 +1,83 @@
+package com.siopa.orders.repositories;
+
+import com.siopa.orders.dto.RollupBucket;
+import com.siopa.orders.models.ERollupGranularity;
+import com.siopa.orders.models.OrderRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Repository interface for managing `OrderRollup` rows.
+ * Provides the upsert used to apply deltas and the range queries behind the stats endpoint.
+ */
+@Repository
+public interface OrderRollupRepository extends JpaRepository<OrderRollup, Long> {
+
+    /**
+     * Adds a delta to one bucket of a store, creating the bucket if it does not exist yet.
+     * A single PostgreSQL upsert, so nodes adding to the same new bucket concurrently cannot
+     * collide on its unique index.
+     *
+     * @param delta the bucket to add to, holding the amounts to add
+     * @return the number of rows inserted or updated
+     */
+    @Modifying
+    @Query(value = "INSERT INTO order_rollups (id, storeid, granularity, bucket_start, order_count, item_count, "
+            + "total_cost, delivery_fees, cancelled_count, cancelled_total_cost, completed_count, completed_total_cost) "
+            + "VALUES (nextval('order_rollups_seq'), :#{#delta.storeID}, :#{#delta.granularity.name()}, "
+            + ":#{#delta.bucketStart}, :#{#delta.orderCount}, :#{#delta.itemCount}, :#{#delta.totalCost}, "
+            + ":#{#delta.deliveryFees}, :#{#delta.cancelledCount}, :#{#delta.cancelledTotalCost}, "
+            + ":#{#delta.completedCount}, :#{#delta.completedTotalCost}) "
+            + "ON CONFLICT (storeid, granularity, bucket_start) DO UPDATE SET "
+            + "order_count = order_rollups.order_count + EXCLUDED.order_count, "
+            + "item_count = order_rollups.item_count + EXCLUDED.item_count, "
+            + "total_cost = order_rollups.total_cost + EXCLUDED.total_cost, "
+            + "delivery_fees = order_rollups.delivery_fees + EXCLUDED.delivery_fees, "
+            + "cancelled_count = order_rollups.cancelled_count + EXCLUDED.cancelled_count, "
+            + "cancelled_total_cost = order_rollups.cancelled_total_cost + EXCLUDED.cancelled_total_cost, "
+            + "completed_count = order_rollups.completed_count + EXCLUDED.completed_count, "
+            + "completed_total_cost = order_rollups.completed_total_cost + EXCLUDED.completed_total_cost",
+            nativeQuery = true)
+    int addToBucket(@Param("delta") OrderRollup delta);
+
+    /**
+     * Retrieves a store's buckets starting in a time range, oldest first.
+     *
+     * @param storeID     the store ID
+     * @param granularity the width of the buckets
+     * @param from        the earliest bucket start, inclusive
+     * @param to          the latest bucket start, exclusive
+     * @return one row per bucket that has any orders
+     */
+    @Query("SELECT new com.siopa.orders.dto.RollupBucket(r.storeID, r.granularity, r.bucketStart, r.orderCount, "
+            + "r.itemCount, r.totalCost, r.deliveryFees, r.cancelledCount, r.cancelledTotalCost, r.completedCount, "
+            + "r.completedTotalCost) FROM OrderRollup r WHERE r.storeID = :storeID AND r.granularity = :granularity "
+            + "AND r.bucketStart >= :from AND r.bucketStart < :to ORDER BY r.bucketStart")
+    List<RollupBucket> findBuckets(@Param("storeID") String storeID,
+                                   @Param("granularity") ERollupGranularity granularity,
+                                   @Param("from") Date from,
+                                   @Param("to") Date to);
+
+    /**
+     * Retrieves the buckets starting in a time range, summed across stores, oldest first.
+     *
+     * @param granularity the width of the buckets
+     * @param from        the earliest bucket start, inclusive
+     * @param to          the latest bucket start, exclusive
+     * @return one row per bucket that has any orders
+     */
+    @Query("SELECT new com.siopa.orders.dto.RollupBucket(r.granularity, r.bucketStart, SUM(r.orderCount), "
+            + "SUM(r.itemCount), SUM(r.totalCost), SUM(r.deliveryFees), SUM(r.cancelledCount), "
+            + "SUM(r.cancelledTotalCost), SUM(r.completedCount), SUM(r.completedTotalCost)) FROM OrderRollup r "
+            + "WHERE r.granularity = :granularity AND r.bucketStart >= :from AND r.bucketStart < :to "
+            + "GROUP BY r.granularity, r.bucketStart ORDER BY r.bucketStart")
+    List<RollupBucket> findTotals(@Param("granularity") ERollupGranularity granularity,
+                                  @Param("from") Date from,
+                                  @Param("to") Date to);
+}
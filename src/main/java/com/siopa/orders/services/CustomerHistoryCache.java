@@ -0,0 +1,62 @@
+package com.siopa.orders.services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.siopa.orders.dto.CursorPage;
+import com.siopa.orders.dto.OrderSummary;
+import com.siopa.orders.events.OrderEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * Short-TTL cache of the default-sized first page of each customer's order history, which is
+ * what customer apps request most often. A customer's entry is dropped as soon as one of their orders is
+ * created, changes status, or is deleted.
+ */
+@Component
+public class CustomerHistoryCache {
+
+    private final Cache<String, CursorPage<OrderSummary>> cache;
+
+    public CustomerHistoryCache(@Value("${orders.cache.customer-history.maximum-size:10000}") long maximumSize,
+                                @Value("${orders.cache.customer-history.ttl-ms:5000}") long ttlMs,
+                                MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(Duration.ofMillis(ttlMs))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "orders.customerHistory");
+    }
+
+    /**
+     * Returns the cached first page for a customer, loading it if absent.
+     *
+     * @param customerId the customer ID
+     * @param loader     loads the first page from the database
+     * @return the first page
+     */
+    public CursorPage<OrderSummary> getFirstPage(String customerId,
+                                                 Function<String, CursorPage<OrderSummary>> loader) {
+        return cache.get(customerId, loader);
+    }
+
+    /**
+     * Drops the cached pages of the customer whose order changed, once the change has committed.
+     *
+     * @param event the order event
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderEvent(OrderEvent event) {
+        String customerId = event.getOrder().getCustomerID();
+        if (customerId != null) {
+            cache.invalidate(customerId);
+        }
+    }
+}
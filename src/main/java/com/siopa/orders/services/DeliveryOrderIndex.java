@@ -0,0 +1,330 @@
+package com.siopa.orders.services;
+
+import com.siopa.orders.dto.NearbyOrder;
+import com.siopa.orders.events.OrderEvent;
+import com.siopa.orders.models.EStatus;
+import com.siopa.orders.models.Order;
+import com.siopa.orders.repositories.OrderRepository;
+import com.siopa.orders.repositories.OrderRepository.DeliveryLocation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory spatial index of active delivery orders by customer location, one grid per store.
+ * Locations are bucketed into cells of a fixed size in degrees, so a radius query only visits the
+ * cells overlapping the circle, and a nearest-neighbour query visits rings of cells outwards from
+ * the query point until no closer order can remain.
+ * <p>
+ * The index is kept up to date from committed order events and rebuilt from the database at
+ * startup and periodically, like {@link OrderStatusCounters}. Events that arrive while a rebuild
+ * is running are replayed on the rebuilt index before it replaces the old one, so they are never
+ * lost. Orders without coordinates (latitude and longitude both 0) are not indexed.
+ */
+@Component
+public class DeliveryOrderIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(DeliveryOrderIndex.class);
+
+    /**
+     * Statuses of delivery orders that are kept in the index.
+     */
+    public static final Set<EStatus> ACTIVE_STATUSES = EnumSet.of(EStatus.SUBMITTED, EStatus.PREPARING,
+            EStatus.OUT_FOR_DELIVERY);
+
+    private static final double EARTH_RADIUS_KM = 6371.0088;
+    private static final double KM_PER_DEGREE = Math.PI * EARTH_RADIUS_KM / 180;
+
+    private final OrderRepository orderRepository;
+    private final double cellDegrees;
+
+    private final Object updateLock = new Object();
+
+    private volatile Map<String, StoreGrid> stores = new ConcurrentHashMap<>();
+
+    /**
+     * Events applied since the running rebuild started, or {@code null} when no rebuild is running.
+     */
+    private List<OrderEvent> eventsDuringRebuild;
+
+    public DeliveryOrderIndex(OrderRepository orderRepository,
+                              @Value("${orders.spatial.cell-degrees:0.01}") double cellDegrees) {
+        this.orderRepository = orderRepository;
+        this.cellDegrees = cellDegrees;
+    }
+
+    /**
+     * Finds a store's indexed orders within a distance of a point, nearest first.
+     *
+     * @param storeId  the store ID
+     * @param lat      the latitude of the point
+     * @param lng      the longitude of the point
+     * @param radiusKm the maximum distance in kilometres
+     * @param statuses the statuses to include
+     * @return the matching orders with their distance, nearest first
+     */
+    public List<NearbyOrder> within(String storeId, double lat, double lng, double radiusKm, Set<EStatus> statuses) {
+        StoreGrid grid = stores.get(storeId);
+        if (grid == null) {
+            return List.of();
+        }
+        double latSpan = radiusKm / KM_PER_DEGREE;
+        double lngSpan = radiusKm / (KM_PER_DEGREE * Math.max(Math.cos(Math.toRadians(lat)), 1e-6));
+        int minRow = row(lat - latSpan);
+        int maxRow = row(lat + latSpan);
+        int minCol = column(lng - lngSpan);
+        int maxCol = column(lng + lngSpan);
+        List<NearbyOrder> found = new ArrayList<>();
+        if ((long) (maxRow - minRow + 1) * (maxCol - minCol + 1) > grid.cells.size()) {
+            grid.cells.values().forEach(cell -> collect(cell.values(), storeId, lat, lng, radiusKm, statuses, found));
+        } else {
+            for (int r = minRow; r <= maxRow; r++) {
+                for (int c = minCol; c <= maxCol; c++) {
+                    Map<String, Location> cell = grid.cells.get(cellKey(r, c));
+                    if (cell != null) {
+                        collect(cell.values(), storeId, lat, lng, radiusKm, statuses, found);
+                    }
+                }
+            }
+        }
+        found.sort(Comparator.comparingDouble(NearbyOrder::getDistanceKm));
+        return found;
+    }
+
+    /**
+     * Finds a store's indexed orders nearest to a point.
+     *
+     * @param storeId  the store ID
+     * @param lat      the latitude of the point
+     * @param lng      the longitude of the point
+     * @param k        the maximum number of orders to return
+     * @param statuses the statuses to include
+     * @return up to {@code k} orders with their distance, nearest first
+     */
+    public List<NearbyOrder> nearest(String storeId, double lat, double lng, int k, Set<EStatus> statuses) {
+        StoreGrid grid = stores.get(storeId);
+        if (grid == null || k <= 0) {
+            return List.of();
+        }
+        PriorityQueue<NearbyOrder> best = new PriorityQueue<>(
+                Comparator.comparingDouble(NearbyOrder::getDistanceKm).reversed());
+        int centerRow = row(lat);
+        int centerCol = column(lng);
+        int cellsSeen = 0;
+        for (int ring = 0; cellsSeen < grid.cells.size(); ring++) {
+            // every order outside the rings searched so far is at least this far away
+            if (best.size() == k && best.peek().getDistanceKm() <= (ring - 1) * minCellKm(lat, ring)) {
+                break;
+            }
+            if (8L * ring > grid.cells.size()) {
+                // the remaining orders are sparse and far away; visiting every cell is cheaper
+                best.clear();
+                grid.cells.values().forEach(cell -> offer(cell.values(), storeId, lat, lng, k, statuses, best));
+                break;
+            }
+            for (int r = centerRow - ring; r <= centerRow + ring; r++) {
+                int step = r == centerRow - ring || r == centerRow + ring ? 1 : 2 * ring;
+                for (int c = centerCol - ring; c <= centerCol + ring; c += step) {
+                    Map<String, Location> cell = grid.cells.get(cellKey(r, c));
+                    if (cell != null) {
+                        cellsSeen++;
+                        offer(cell.values(), storeId, lat, lng, k, statuses, best);
+                    }
+                }
+            }
+        }
+        List<NearbyOrder> nearest = new ArrayList<>(best);
+        nearest.sort(Comparator.comparingDouble(NearbyOrder::getDistanceKm));
+        return nearest;
+    }
+
+    /**
+     * Applies a committed order change to the index.
+     *
+     * @param event the order event
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderEvent(OrderEvent event) {
+        synchronized (updateLock) {
+            apply(stores, event);
+            if (eventsDuringRebuild != null) {
+                eventsDuringRebuild.add(event);
+            }
+        }
+    }
+
+    /**
+     * Rebuilds the index from the database.
+     * Changes that commit while the query runs are buffered and replayed on the rebuilt index in
+     * the order they arrived; replaying a change the query already saw leaves the same state.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${orders.spatial.rebuild-interval-ms:300000}",
+            fixedDelayString = "${orders.spatial.rebuild-interval-ms:300000}")
+    public void rebuild() {
+        synchronized (updateLock) {
+            eventsDuringRebuild = new ArrayList<>();
+        }
+        Map<String, StoreGrid> rebuilt = new ConcurrentHashMap<>();
+        int indexed = 0;
+        try {
+            for (DeliveryLocation row : orderRepository.findDeliveryLocations(ACTIVE_STATUSES)) {
+                if (put(rebuilt, row.getStoreID(),
+                        new Location(row.getOrderId(), row.getCustomerLat(), row.getCustomerLng(), row.getStatus()))) {
+                    indexed++;
+                }
+            }
+        } catch (RuntimeException e) {
+            synchronized (updateLock) {
+                eventsDuringRebuild = null;
+            }
+            throw e;
+        }
+        int replayed;
+        synchronized (updateLock) {
+            replayed = eventsDuringRebuild.size();
+            eventsDuringRebuild.forEach(event -> apply(rebuilt, event));
+            eventsDuringRebuild = null;
+            stores = rebuilt;
+        }
+        logger.info("Rebuilt delivery order index with {} orders in {} stores, replaying {} concurrent changes",
+                indexed, rebuilt.size(), replayed);
+    }
+
+    private void apply(Map<String, StoreGrid> stores, OrderEvent event) {
+        Order order = event.getOrder();
+        if (event.getType() == OrderEvent.Type.DELETED || !ACTIVE_STATUSES.contains(event.getStatus())) {
+            remove(stores, order.getStoreID(), order.getOrderId());
+        } else if (order.isDelivery()) {
+            put(stores, order.getStoreID(),
+                    new Location(order.getOrderId(), order.getCustomerLat(), order.getCustomerLng(), event.getStatus()));
+        }
+    }
+
+    private boolean put(Map<String, StoreGrid> stores, String storeId, Location location) {
+        if (storeId == null || (location.lat() == 0 && location.lng() == 0)) {
+            return false;
+        }
+        StoreGrid grid = stores.computeIfAbsent(storeId, id -> new StoreGrid());
+        long key = cellKey(row(location.lat()), column(location.lng()));
+        // inserted inside compute so a concurrent removal cannot drop the cell between lookup and insert
+        grid.cells.compute(key, (k, cell) -> {
+            Map<String, Location> updated = cell != null ? cell : new ConcurrentHashMap<>();
+            updated.put(location.orderId(), location);
+            return updated;
+        });
+        Long previousKey = grid.cellByOrder.put(location.orderId(), key);
+        if (previousKey != null && previousKey != key) {
+            removeFromCell(grid, previousKey, location.orderId());
+        }
+        return true;
+    }
+
+    private static void remove(Map<String, StoreGrid> stores, String storeId, String orderId) {
+        StoreGrid grid = storeId != null ? stores.get(storeId) : null;
+        if (grid != null) {
+            Long key = grid.cellByOrder.remove(orderId);
+            if (key != null) {
+                removeFromCell(grid, key, orderId);
+            }
+        }
+    }
+
+    private static void removeFromCell(StoreGrid grid, long key, String orderId) {
+        grid.cells.computeIfPresent(key, (k, cell) -> {
+            cell.remove(orderId);
+            return cell.isEmpty() ? null : cell;
+        });
+    }
+
+    private static void collect(Collection<Location> locations, String storeId, double lat, double lng,
+                                double radiusKm, Set<EStatus> statuses, List<NearbyOrder> found) {
+        for (Location location : locations) {
+            if (statuses.contains(location.status())) {
+                NearbyOrder nearby = toNearby(storeId, location, lat, lng);
+                if (nearby.getDistanceKm() <= radiusKm) {
+                    found.add(nearby);
+                }
+            }
+        }
+    }
+
+    private static void offer(Collection<Location> locations, String storeId, double lat, double lng, int k,
+                              Set<EStatus> statuses, PriorityQueue<NearbyOrder> best) {
+        for (Location location : locations) {
+            if (statuses.contains(location.status())) {
+                best.add(toNearby(storeId, location, lat, lng));
+                if (best.size() > k) {
+                    best.poll();
+                }
+            }
+        }
+    }
+
+    /**
+     * The smallest width, in kilometres, of a cell up to {@code rings} cells north or south of a latitude.
+     */
+    private double minCellKm(double lat, int rings) {
+        double farthestLat = Math.min(90, Math.abs(lat) + (rings + 1) * cellDegrees);
+        return cellDegrees * KM_PER_DEGREE * Math.cos(Math.toRadians(farthestLat));
+    }
+
+    private static NearbyOrder toNearby(String storeId, Location location, double lat, double lng) {
+        return new NearbyOrder(location.orderId(), storeId, location.status(), location.lat(), location.lng(),
+                distanceKm(lat, lng, location.lat(), location.lng()));
+    }
+
+    /**
+     * Great-circle distance between two points using the haversine formula.
+     */
+    static double distanceKm(double lat1, double lng1, double lat2, double lng2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLng = Math.toRadians(lng2 - lng1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) * Math.sin(dLng / 2) * Math.sin(dLng / 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+
+    private int row(double lat) {
+        return (int) Math.floor(lat / cellDegrees);
+    }
+
+    private int column(double lng) {
+        return (int) Math.floor(lng / cellDegrees);
+    }
+
+    private static long cellKey(int row, int column) {
+        return ((long) row << 32) | (column & 0xFFFFFFFFL);
+    }
+
+    /**
+     * An indexed order location.
+     */
+    private record Location(String orderId, double lat, double lng, EStatus status) {
+    }
+
+    /**
+     * The grid of one store: orders by cell, and the cell of each order so it can be moved or removed.
+     */
+    private static final class StoreGrid {
+
+        private final Map<Long, Map<String, Location>> cells = new ConcurrentHashMap<>();
+
+        private final Map<String, Long> cellByOrder = new ConcurrentHashMap<>();
+    }
+}
@@ -0,0 +1,69 @@
+package com.siopa.orders.services;
+
+import com.siopa.orders.exceptions.InvalidCursorException;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Date;
+
+/**
+ * Opaque keyset pagination cursor made of a timestamp and an order ID tiebreak.
+ * The timestamp keeps its full sub-millisecond precision, so rows created within the same
+ * millisecond are neither skipped nor repeated across pages.
+ *
+ * @param timestamp the timestamp of the last row of the previous page
+ * @param orderId   the order ID of the last row of the previous page
+ */
+public record KeysetCursor(Instant timestamp, String orderId) {
+
+    /**
+     * Creates a cursor positioned after the given row.
+     *
+     * @param timestamp the row's timestamp
+     * @param orderId   the row's order ID
+     * @return the cursor
+     */
+    public static KeysetCursor of(Date timestamp, String orderId) {
+        return new KeysetCursor(timestamp.toInstant(), orderId);
+    }
+
+    /**
+     * Decodes a cursor previously produced by {@link #encode()}.
+     *
+     * @param cursor the encoded cursor
+     * @return the cursor
+     * @throws InvalidCursorException if the cursor is malformed
+     */
+    public static KeysetCursor decode(String cursor) {
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = decoded.indexOf(':');
+            String[] instant = decoded.substring(0, separator).split("\\.");
+            return new KeysetCursor(Instant.ofEpochSecond(Long.parseLong(instant[0]), Long.parseLong(instant[1])),
+                    decoded.substring(separator + 1));
+        } catch (RuntimeException e) {
+            throw new InvalidCursorException(cursor, e);
+        }
+    }
+
+    /**
+     * Encodes the cursor for clients.
+     *
+     * @return the URL-safe encoded cursor
+     */
+    public String encode() {
+        String raw = timestamp.getEpochSecond() + "." + timestamp.getNano() + ":" + orderId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Returns the timestamp as a JDBC timestamp for use as a query parameter.
+     *
+     * @return the timestamp
+     */
+    public Timestamp sqlTimestamp() {
+        return Timestamp.from(timestamp);
+    }
+}
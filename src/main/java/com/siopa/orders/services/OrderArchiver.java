@@ -0,0 +1,139 @@
+package com.siopa.orders.services;
+
+import com.siopa.orders.events.OrderEvent;
+import com.siopa.orders.models.EStatus;
+import com.siopa.orders.models.Order;
+import com.siopa.orders.repositories.OrderArchiveRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Background worker that moves old orders in terminal states, with their items, from the live
+ * tables into the partitioned archive. Keeping the live tables small keeps the indexes used by
+ * day-to-day traffic small. Work is done in short batches with a pause between them, and each
+ * run is capped, so archival never competes for long with live traffic. A deletion event is
+ * published for every archived order, so in-memory state such as the status counters stays in
+ * step with the live tables. Runs happen on the archiver's own thread, since the pauses would
+ * otherwise hold up the other scheduled jobs.
+ */
+@Component
+@ConditionalOnProperty(name = "orders.archive.enabled", havingValue = "true")
+public class OrderArchiver {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderArchiver.class);
+
+    /**
+     * Statuses from which an order can no longer change. Delivered and collected orders are not
+     * archived, since they still move to complete.
+     */
+    static final Set<EStatus> ARCHIVABLE_STATUSES = EnumSet.of(EStatus.COMPLETE, EStatus.CANCELLED);
+
+    private final OrderArchiveRepository archiveRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration minimumAge;
+    private final int batchSize;
+    private final int maxBatchesPerRun;
+    private final long pauseMs;
+    private final long intervalMs;
+    private final ScheduledExecutorService runner =
+            Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("order-archiver-"));
+
+    public OrderArchiver(OrderArchiveRepository archiveRepository,
+                         ApplicationEventPublisher eventPublisher,
+                         PlatformTransactionManager transactionManager,
+                         @Value("${orders.archive.minimum-age:P30D}") Duration minimumAge,
+                         @Value("${orders.archive.batch-size:500}") int batchSize,
+                         @Value("${orders.archive.max-batches-per-run:100}") int maxBatchesPerRun,
+                         @Value("${orders.archive.pause-ms:200}") long pauseMs,
+                         @Value("${orders.archive.interval-ms:600000}") long intervalMs) {
+        this.archiveRepository = archiveRepository;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.minimumAge = minimumAge;
+        this.batchSize = batchSize;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+        this.pauseMs = pauseMs;
+        this.intervalMs = intervalMs;
+    }
+
+    /**
+     * Starts archiving every interval on the archiver's own thread.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        runner.scheduleWithFixedDelay(() -> {
+            try {
+                archive();
+            } catch (RuntimeException e) {
+                logger.error("Order archival run failed", e);
+            }
+        }, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops archiving, interrupting a run in progress between batches.
+     */
+    @PreDestroy
+    public void stop() {
+        runner.shutdownNow();
+    }
+
+    /**
+     * Archives eligible orders in throttled batches until none remain or the run cap is reached.
+     */
+    public void archive() {
+        Date cutoff = new Date(System.currentTimeMillis() - minimumAge.toMillis());
+        int total = 0;
+        for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+            Integer moved = transactionTemplate.execute(status -> archiveBatch(cutoff));
+            total += moved != null ? moved : 0;
+            if (moved == null || moved < batchSize) {
+                break;
+            }
+            try {
+                Thread.sleep(pauseMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        logger.info("Archived {} orders created before {}", total, cutoff);
+    }
+
+    private int archiveBatch(Date cutoff) {
+        List<Order> orders = archiveRepository.lockArchivable(ARCHIVABLE_STATUSES, cutoff, batchSize);
+        if (orders.isEmpty()) {
+            return 0;
+        }
+        orders.stream()
+                .map(order -> YearMonth.from(order.getCrtdTimeStamp().toInstant().atZone(ZoneId.systemDefault())))
+                .distinct()
+                .forEach(archiveRepository::ensurePartition);
+        int moved = archiveRepository.moveToArchive(orders.stream().map(Order::getOrderId).toList());
+        orders.forEach(order -> eventPublisher.publishEvent(OrderEvent.deleted(order)));
+        logger.debug("Moved {} orders to the archive", moved);
+        return moved;
+    }
+}
@@ -0,0 +1,88 @@
+package com.siopa.orders.services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.siopa.orders.events.OrderEvent;
+import com.siopa.orders.models.Order;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * Bounded, size- and TTL-evicting read-through cache of orders by ID.
+ * Entries are loaded with their items so they can be served without a session.
+ * Changes are invalidated after their transaction commits; because loads and invalidations
+ * of the same key are serialized by the cache, a load that read the old row before the
+ * commit is discarded by the invalidation that follows it, so a stale order is never
+ * served after a successful update on this node.
+ * Hit, miss, and eviction counts are published as the `orders.byId` cache metrics.
+ */
+@Component
+public class OrderCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderCache.class);
+
+    private final Cache<String, Order> cache;
+
+    public OrderCache(@Value("${orders.cache.by-id.maximum-size:10000}") long maximumSize,
+                      @Value("${orders.cache.by-id.ttl-ms:30000}") long ttlMs,
+                      MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(Duration.ofMillis(ttlMs))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "orders.byId");
+    }
+
+    /**
+     * Returns the cached order, loading it if absent.
+     *
+     * @param orderId the order ID
+     * @param loader  loads the order from the database, returning null if it does not exist
+     * @return the order, or null if it does not exist
+     */
+    public Order get(String orderId, Function<String, Order> loader) {
+        return cache.get(orderId, loader);
+    }
+
+    /**
+     * Returns the cached order without loading it, and without recording a hit or a miss, so
+     * lookups that are followed by {@link #get} are not counted twice in the cache metrics.
+     *
+     * @param orderId the order ID
+     * @return the cached order, or null if it is not cached
+     */
+    public Order peek(String orderId) {
+        return cache.policy().getIfPresentQuietly(orderId);
+    }
+
+    /**
+     * Removes an order from the cache.
+     *
+     * @param orderId the order ID
+     */
+    public void invalidate(String orderId) {
+        cache.invalidate(orderId);
+    }
+
+    /**
+     * Invalidates orders whose status changed or that were deleted, once the change has committed.
+     *
+     * @param event the order event
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderEvent(OrderEvent event) {
+        if (event.getType() != OrderEvent.Type.CREATED) {
+            logger.debug("Invalidating cached order {}", event.getOrderId());
+            invalidate(event.getOrderId());
+        }
+    }
+}
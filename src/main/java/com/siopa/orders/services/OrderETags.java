@@ -0,0 +1,55 @@
+package com.siopa.orders.services;
+
+import com.siopa.orders.models.Order;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Date;
+
+/**
+ * Builds strong entity tags for orders and lists of orders from their versions and update
+ * timestamps, so conditional requests can be answered without serializing the orders.
+ */
+public final class OrderETags {
+
+    private OrderETags() {
+    }
+
+    /**
+     * Builds the entity tag of an order from its version and update timestamp.
+     *
+     * @param version       the order's version
+     * @param uptdTimeStamp the order's update timestamp, or null if it was never updated
+     * @return the quoted entity tag
+     */
+    public static String of(long version, Date uptdTimeStamp) {
+        return "\"" + version + "-" + (uptdTimeStamp == null ? 0 : uptdTimeStamp.getTime()) + "\"";
+    }
+
+    /**
+     * Builds the entity tag of an order.
+     *
+     * @param order the order
+     * @return the quoted entity tag
+     */
+    public static String of(Order order) {
+        return of(order.getVersion(), order.getUptdTimeStamp());
+    }
+
+    /**
+     * Builds the entity tag of a list of orders from the IDs and versions of its members, in order.
+     *
+     * @param orders     the orders in the list
+     * @param nextCursor the cursor returned with the list, or null
+     * @return the quoted entity tag
+     */
+    public static String ofList(Collection<Order> orders, String nextCursor) {
+        StringBuilder key = new StringBuilder(orders.size() * 48);
+        for (Order order : orders) {
+            key.append(order.getOrderId()).append(':').append(of(order)).append(';');
+        }
+        key.append(nextCursor);
+        return "\"" + DigestUtils.md5DigestAsHex(key.toString().getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+}
@@ -0,0 +1,109 @@
+package com.siopa.orders.services;
+
+import com.siopa.orders.dto.OrderItemRequest;
+import com.siopa.orders.dto.OrderRequest;
+import com.siopa.orders.models.EStatus;
+import com.siopa.orders.models.Order;
+import com.siopa.orders.models.OrderItem;
+import com.siopa.orders.models.OrderOutbox;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Maps order requests onto entities.
+ * Orders are built together with their items so that a single save cascades to both.
+ */
+public final class OrderMapper {
+
+    private OrderMapper() {
+    }
+
+    /**
+     * Builds a new, unsaved order and its items from a request.
+     *
+     * @param request the order request
+     * @return the order with its items attached
+     */
+    public static Order toOrder(OrderRequest request) {
+        Order order = Order.builder()
+                .customerID(request.getCustomerID())
+                .customerEmail(request.getCustomerEmail())
+                .forename(request.getForename())
+                .surname(request.getSurname())
+                .phoneNumber(request.getPhoneNumber())
+                .billingAddress(request.getBillingAddress())
+                .storeID(request.getStoreID())
+                .totalItemCost(request.getTotalItemCost())
+                .isDelivery(request.isDelivery())
+                .isCollection(request.isCollection())
+                .deliveryFee(request.getDeliveryFee())
+                .deliveryAddress(request.getDeliveryAddress())
+                .totalCost(request.getTotalCost())
+                .status(request.getStatus() != null ? request.getStatus() : EStatus.SUBMITTED)
+                .customerLat(request.getCustomerLat())
+                .customerLng(request.getCustomerLng())
+                .build();
+
+        List<OrderItem> orderItems = new ArrayList<>();
+        if (request.getOrderItems() != null) {
+            for (OrderItemRequest itemRequest : request.getOrderItems()) {
+                orderItems.add(OrderItem.builder()
+                        .productId(itemRequest.getProductId())
+                        .productName(itemRequest.getProductName())
+                        .quantity(itemRequest.getQuantity())
+                        .price(itemRequest.getPrice())
+                        .order(order)
+                        .build());
+            }
+        }
+        order.setOrderItems(orderItems);
+        return order;
+    }
+
+    /**
+     * Builds the outbox entries carrying the inventory messages for a saved order.
+     *
+     * @param order the saved order, with its ID assigned
+     * @return one outbox entry per order item
+     */
+    public static List<OrderOutbox> toOutboxEntries(Order order) {
+        return order.getOrderItems().stream().map(item ->
+                OrderOutbox.builder()
+                        .orderId(order.getOrderId())
+                        .storeID(order.getStoreID())
+                        .productId(item.getProductId())
+                        .quantity(item.getQuantity())
+                        .build()
+        ).collect(Collectors.toList());
+    }
+
+    /**
+     * Checks the fields the database requires, so that one invalid order can be rejected
+     * without rolling back the rest of a batch.
+     *
+     * @param request the order request
+     * @return a description of the first problem found, or null if the request is valid
+     */
+    public static String validate(OrderRequest request) {
+        if (request == null) {
+            return "order is missing";
+        }
+        if (request.getCustomerID() == null || request.getCustomerEmail() == null || request.getStoreID() == null) {
+            return "customerID, customerEmail and storeID are required";
+        }
+        if (request.getTotalItemCost() == null || request.getTotalCost() == null) {
+            return "totalItemCost and totalCost are required";
+        }
+        if (request.getOrderItems() != null) {
+            for (OrderItemRequest item : request.getOrderItems()) {
+                if (item == null || item.getProductId() == null || item.getProductName() == null
+                        || item.getPrice() == null) {
+                    return "order items require productId, productName and price";
+                }
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,114 @@
+package com.siopa.orders.services;
+
+import com.siopa.orders.events.OrderEvent;
+import com.siopa.orders.models.EStatus;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Order service metrics: an observation per phase of order creation, which is recorded as a
+ * timer (and a span when tracing is enabled), and a counter per status transition.
+ * <p>
+ * Transition counters are created up front for every transition the state machine allows, so
+ * counting one is a map lookup and an increment.
+ */
+@Component
+public class OrderMetrics {
+
+    /**
+     * Name of the observation, and of the resulting timer, for each phase of order creation.
+     */
+    public static final String CREATE_PHASE = "orders.create.phase";
+
+    private final ObservationRegistry observationRegistry;
+
+    private final Map<EStatus, Map<EStatus, Counter>> transitions = new EnumMap<>(EStatus.class);
+
+    public OrderMetrics(MeterRegistry meterRegistry, ObjectProvider<ObservationRegistry> observationRegistry) {
+        this.observationRegistry = observationRegistry.getIfAvailable(() -> ObservationRegistry.NOOP);
+        for (EStatus from : EStatus.values()) {
+            Map<EStatus, Counter> counters = new EnumMap<>(EStatus.class);
+            for (EStatus to : from.nextStatuses()) {
+                counters.put(to, Counter.builder("orders.status.transitions")
+                        .description("Committed order status transitions")
+                        .tag("from", from.name())
+                        .tag("to", to.name())
+                        .register(meterRegistry));
+            }
+            transitions.put(from, counters);
+        }
+    }
+
+    /**
+     * Runs one phase of order creation inside an observation.
+     *
+     * @param phase  the phase name, used as a low-cardinality tag
+     * @param action the work done in the phase
+     * @param <T>    the result type
+     * @return the result of the action
+     */
+    public <T> T observeCreatePhase(String phase, Supplier<T> action) {
+        return Observation.createNotStarted(CREATE_PHASE, observationRegistry)
+                .lowCardinalityKeyValue("phase", phase)
+                .observe(action);
+    }
+
+    /**
+     * Observes the commit of the current transaction as the "commit" phase of order creation.
+     * The phase starts just before commit, so it includes flushing the batched inserts, and ends
+     * once the transaction has completed. Does nothing outside a transaction.
+     */
+    public void observeCommit() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+
+            private Observation observation;
+
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                observation = Observation.createNotStarted(CREATE_PHASE, observationRegistry)
+                        .lowCardinalityKeyValue("phase", "commit")
+                        .start();
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if (observation != null) {
+                    if (status != STATUS_COMMITTED) {
+                        observation.error(new IllegalStateException("Transaction did not commit"));
+                    }
+                    observation.stop();
+                }
+            }
+        });
+    }
+
+    /**
+     * Counts a status transition once the change has committed.
+     *
+     * @param event the order event
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderEvent(OrderEvent event) {
+        if (event.getType() != OrderEvent.Type.STATUS_CHANGED || event.getPreviousStatus() == null) {
+            return;
+        }
+        Counter counter = transitions.get(event.getPreviousStatus()).get(event.getStatus());
+        if (counter != null) {
+            counter.increment();
+        }
+    }
+}
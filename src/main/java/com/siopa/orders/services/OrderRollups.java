@@ -0,0 +1,202 @@
+package com.siopa.orders.services;
+
+import com.siopa.orders.dto.RollupBucket;
+import com.siopa.orders.events.OrderEvent;
+import com.siopa.orders.models.ERollupGranularity;
+import com.siopa.orders.models.EStatus;
+import com.siopa.orders.models.Order;
+import com.siopa.orders.models.OrderItem;
+import com.siopa.orders.models.OrderRollup;
+import com.siopa.orders.models.OrderRollupDelta;
+import com.siopa.orders.repositories.OrderRollupDeltaRepository;
+import com.siopa.orders.repositories.OrderRollupRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Per-store hourly and daily revenue and volume rollups, maintained incrementally.
+ * <p>
+ * Each order change that affects the rollups is written as an {@link OrderRollupDelta} in the
+ * transaction of the change itself, so no committed change can be lost. Every
+ * {@code orders.rollups.flush-interval-ms} the pending deltas are locked, summed per bucket, added
+ * to the {@link OrderRollup} rows with one upsert per bucket in a fixed order, and deleted, all in
+ * one transaction. Nodes skip deltas locked by another node, so several nodes can flush
+ * concurrently. Buckets follow the hours and days of {@code orders.rollups.zone}. Deleting or
+ * archiving an order does not change the rollups.
+ */
+@Component
+public class OrderRollups {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderRollups.class);
+
+    private final OrderRollupRepository rollupRepository;
+    private final OrderRollupDeltaRepository deltaRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ZoneId zone;
+    private final int batchSize;
+
+    public OrderRollups(OrderRollupRepository rollupRepository,
+                        OrderRollupDeltaRepository deltaRepository,
+                        PlatformTransactionManager transactionManager,
+                        @Value("${orders.rollups.zone:UTC}") String zone,
+                        @Value("${orders.rollups.flush-batch-size:1000}") int batchSize) {
+        this.rollupRepository = rollupRepository;
+        this.deltaRepository = deltaRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.zone = ZoneId.of(zone);
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Retrieves the buckets starting in a time range, for one store or summed across stores.
+     * Changes from the last flush interval may not be included yet.
+     *
+     * @param storeId     the store ID, or null for the total across stores
+     * @param granularity the width of the buckets
+     * @param from        the start of the range; the bucket containing it is included
+     * @param to          the end of the range, exclusive
+     * @return one row per bucket that has any orders, oldest first
+     */
+    @Transactional(readOnly = true)
+    public List<RollupBucket> getBuckets(String storeId, ERollupGranularity granularity, Instant from, Instant to) {
+        Date start = Date.from(granularity.bucketStart(from, zone));
+        Date end = Date.from(to);
+        return storeId == null
+                ? rollupRepository.findTotals(granularity, start, end)
+                : rollupRepository.findBuckets(storeId, granularity, start, end);
+    }
+
+    /**
+     * Records the delta of an order change in the transaction making the change.
+     *
+     * @param event the order event
+     */
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onOrderEvent(OrderEvent event) {
+        Order order = event.getOrder();
+        if (order.getStoreID() == null) {
+            return;
+        }
+        BigDecimal totalCost = orZero(order.getTotalCost());
+        OrderRollupDelta.OrderRollupDeltaBuilder delta = OrderRollupDelta.builder()
+                .storeID(order.getStoreID())
+                .orderCreated(order.getCrtdTimeStamp() != null ? order.getCrtdTimeStamp() : new Date())
+                .totalCost(BigDecimal.ZERO)
+                .deliveryFees(BigDecimal.ZERO)
+                .cancelledTotalCost(BigDecimal.ZERO)
+                .completedTotalCost(BigDecimal.ZERO);
+        if (event.getType() == OrderEvent.Type.CREATED) {
+            long items = order.getOrderItems() == null ? 0
+                    : order.getOrderItems().stream().mapToLong(OrderItem::getQuantity).sum();
+            delta.orderCount(1).itemCount(items).totalCost(totalCost).deliveryFees(orZero(order.getDeliveryFee()));
+        } else if (event.getType() == OrderEvent.Type.STATUS_CHANGED && event.getStatus() == EStatus.CANCELLED) {
+            delta.cancelledCount(1).cancelledTotalCost(totalCost);
+        } else if (event.getType() == OrderEvent.Type.STATUS_CHANGED && event.getStatus() == EStatus.COMPLETE) {
+            delta.completedCount(1).completedTotalCost(totalCost);
+        } else {
+            return;
+        }
+        deltaRepository.save(delta.build());
+    }
+
+    /**
+     * Adds the pending deltas to the rollup rows, in batches of one transaction each.
+     */
+    @Scheduled(fixedDelayString = "${orders.rollups.flush-interval-ms:5000}")
+    public void flush() {
+        try {
+            Integer flushed;
+            do {
+                flushed = transactionTemplate.execute(status -> flushBatch());
+            } while (flushed != null && flushed == batchSize);
+        } catch (RuntimeException e) {
+            logger.warn("Failed to flush order rollup deltas, will retry", e);
+        }
+    }
+
+    private int flushBatch() {
+        List<OrderRollupDelta> deltas = deltaRepository.lockNext(batchSize);
+        if (deltas.isEmpty()) {
+            return 0;
+        }
+        Map<BucketKey, Delta> buckets = new TreeMap<>(BucketKey.ORDER);
+        for (OrderRollupDelta delta : deltas) {
+            Instant created = delta.getOrderCreated().toInstant();
+            for (ERollupGranularity granularity : ERollupGranularity.values()) {
+                BucketKey key = new BucketKey(delta.getStoreID(), granularity, granularity.bucketStart(created, zone));
+                buckets.merge(key, Delta.of(delta), Delta::plus);
+            }
+        }
+        buckets.forEach(this::apply);
+        deltaRepository.deleteByIds(deltas.stream().map(OrderRollupDelta::getId).toList());
+        logger.debug("Flushed {} order rollup deltas into {} buckets", deltas.size(), buckets.size());
+        return deltas.size();
+    }
+
+    private void apply(BucketKey key, Delta delta) {
+        rollupRepository.addToBucket(OrderRollup.builder()
+                .storeID(key.storeId())
+                .granularity(key.granularity())
+                .bucketStart(Date.from(key.bucketStart()))
+                .orderCount(delta.orders())
+                .itemCount(delta.items())
+                .totalCost(delta.totalCost())
+                .deliveryFees(delta.deliveryFees())
+                .cancelledCount(delta.cancelled())
+                .cancelledTotalCost(delta.cancelledTotalCost())
+                .completedCount(delta.completed())
+                .completedTotalCost(delta.completedTotalCost())
+                .build());
+    }
+
+    private static BigDecimal orZero(BigDecimal value) {
+        return value != null ? value : BigDecimal.ZERO;
+    }
+
+    /**
+     * Identifies one rollup row. Rows are written in {@link #ORDER} to avoid deadlocks between nodes.
+     */
+    private record BucketKey(String storeId, ERollupGranularity granularity, Instant bucketStart) {
+
+        static final Comparator<BucketKey> ORDER = Comparator.comparing(BucketKey::storeId)
+                .thenComparing(BucketKey::granularity)
+                .thenComparing(BucketKey::bucketStart);
+    }
+
+    /**
+     * Changes to add to one rollup row.
+     */
+    private record Delta(long orders, long items, BigDecimal totalCost, BigDecimal deliveryFees,
+                         long cancelled, BigDecimal cancelledTotalCost, long completed, BigDecimal completedTotalCost) {
+
+        static Delta of(OrderRollupDelta delta) {
+            return new Delta(delta.getOrderCount(), delta.getItemCount(), delta.getTotalCost(),
+                    delta.getDeliveryFees(), delta.getCancelledCount(), delta.getCancelledTotalCost(),
+                    delta.getCompletedCount(), delta.getCompletedTotalCost());
+        }
+
+        Delta plus(Delta other) {
+            return new Delta(orders + other.orders, items + other.items, totalCost.add(other.totalCost),
+                    deliveryFees.add(other.deliveryFees), cancelled + other.cancelled,
+                    cancelledTotalCost.add(other.cancelledTotalCost), completed + other.completed,
+                    completedTotalCost.add(other.completedTotalCost));
+        }
+    }
+}
@@ -1,20 +1,44 @@
 package com.siopa.orders.services;
 
+import com.siopa.orders.datasource.ReadWriteRoutingDataSource;
+import com.siopa.orders.dto.BatchOrderResult;
+import com.siopa.orders.dto.CursorPage;
 import com.siopa.orders.dto.OrderRequest;
-import com.siopa.orders.kafka.OrderProducer;
+import com.siopa.orders.dto.OrderSummary;
+import com.siopa.orders.dto.StatusCount;
+import com.siopa.orders.dto.StatusUpdateResult;
+import com.siopa.orders.events.OrderEvent;
+import com.siopa.orders.exceptions.InvalidStatusTransitionException;
 import com.siopa.orders.models.EStatus;
 import com.siopa.orders.models.Order;
-import com.siopa.orders.models.OrderItem;
-import com.siopa.orders.repositories.OrderItemRepository;
+import com.siopa.orders.repositories.OrderArchiveRepository;
+import com.siopa.orders.repositories.OrderOutboxRepository;
 import com.siopa.orders.repositories.OrderRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.EnumMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Service class for managing orders.
@@ -25,29 +49,226 @@ public class OrderService {
 
     private static final Logger logger = LoggerFactory.getLogger(OrderService.class);
 
-    @Autowired
-    private OrderItemRepository orderItemRepository;
+    /**
+     * Upper bound on the number of orders returned in a single page.
+     */
+    public static final int MAX_PAGE_SIZE = 1000;
+
+    /**
+     * Default page size of a customer's order history; only pages of this size are cached.
+     */
+    public static final int DEFAULT_HISTORY_PAGE_SIZE = 20;
+
+    @PersistenceContext
+    private EntityManager entityManager;
 
     @Autowired
     private OrderRepository orderRepository;
 
     @Autowired
-    private OrderProducer orderProducer;
+    private OrderOutboxRepository orderOutboxRepository;
+
+    @Autowired
+    private OrderArchiveRepository orderArchiveRepository;
+
+    @Value("${orders.archive.enabled:false}")
+    private boolean archiveEnabled;
+
+    @Value("${orders.changes.safety-lag-ms:5000}")
+    private long changeFeedSafetyLagMs;
+
+    @Autowired
+    private OrderCache orderCache;
+
+    @Autowired
+    private OrderStatusCounters orderStatusCounters;
+
+    @Autowired
+    private CustomerHistoryCache customerHistoryCache;
+
+    @Autowired
+    private OrderMetrics orderMetrics;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
 
     /**
-     * Retrieves all orders.
+     * Retrieves a page of orders using keyset pagination on the order ID.
+     * The page is read in two statements regardless of its size: one for the IDs and one
+     * for the orders with their items.
      *
-     * @return a list of all orders
+     * @param after the cursor returned with the previous page, or null for the first page
+     * @param limit the requested page size, clamped to [1, {@value #MAX_PAGE_SIZE}]
+     * @return the page of orders and the cursor for the next page
      */
-    public List<Order> getAllOrders() {
-        logger.info("Fetching all orders");
-        List<Order> orders = orderRepository.findAll();
-        logger.debug("Retrieved {} orders", orders.size());
-        return orders;
+    @Transactional(readOnly = true)
+    public CursorPage<Order> getOrders(String after, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        logger.info("Fetching {} orders after cursor {}", pageSize, after);
+        List<String> orderIds = after == null || after.isBlank()
+                ? orderRepository.findOrderIds(Limit.of(pageSize))
+                : orderRepository.findOrderIdsAfter(after, Limit.of(pageSize));
+        List<Order> orders = orderIds.isEmpty() ? List.of() : orderRepository.findWithItemsByOrderIdIn(orderIds);
+        String nextCursor = orders.size() == pageSize ? orders.get(orders.size() - 1).getOrderId() : null;
+        logger.debug("Retrieved {} orders, next cursor {}", orders.size(), nextCursor);
+        return new CursorPage<>(orders, nextCursor);
+    }
+
+    /**
+     * Retrieves a page of order summaries using keyset pagination on the order ID.
+     * Only the summary columns are selected and no entities are loaded.
+     *
+     * @param after the cursor returned with the previous page, or null for the first page
+     * @param limit the requested page size, clamped to [1, {@value #MAX_PAGE_SIZE}]
+     * @return the page of order summaries and the cursor for the next page
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<OrderSummary> getOrderSummaries(String after, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        logger.info("Fetching {} order summaries after cursor {}", pageSize, after);
+        List<OrderSummary> summaries = after == null || after.isBlank()
+                ? orderRepository.findSummaries(Limit.of(pageSize))
+                : orderRepository.findSummariesAfter(after, Limit.of(pageSize));
+        String nextCursor = summaries.size() == pageSize ? summaries.get(summaries.size() - 1).getOrderId() : null;
+        return new CursorPage<>(summaries, nextCursor);
+    }
+
+    /**
+     * Retrieves a page of orders with only the requested fields, using keyset pagination on the
+     * order ID. The order ID is always included, since it is the cursor.
+     *
+     * @param fields the JSON names of the fields to return
+     * @param after  the cursor returned with the previous page, or null for the first page
+     * @param limit  the requested page size, clamped to [1, {@value #MAX_PAGE_SIZE}]
+     * @return the page of partial orders and the cursor for the next page
+     * @throws com.siopa.orders.exceptions.UnknownFieldException if a field cannot be selected
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<Map<String, Object>> getOrderFields(Collection<String> fields, String after, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        logger.info("Fetching fields {} of {} orders after cursor {}", fields, pageSize, after);
+        List<Map<String, Object>> rows = orderRepository.findFields(withOrderId(fields),
+                after == null || after.isBlank() ? null : after, pageSize);
+        String nextCursor = rows.size() == pageSize ? (String) rows.get(rows.size() - 1).get("orderId") : null;
+        return new CursorPage<>(rows, nextCursor);
+    }
+
+    private static Set<String> withOrderId(Collection<String> fields) {
+        Set<String> selected = new LinkedHashSet<>();
+        selected.add("orderId");
+        selected.addAll(fields);
+        return selected;
+    }
+
+    /**
+     * Retrieves a page of a customer's order history, newest first, as lightweight summaries.
+     * Pages are read with keyset pagination on (creation time, order ID), so every page costs a
+     * single index range scan however deep the client scrolls. The default-sized first page is
+     * served from a short-lived cache, and loaded from the primary so a lagging replica cannot
+     * cache a stale page after an invalidation.
+     *
+     * @param customerId the unique identifier of the customer
+     * @param before     the cursor returned with the previous page, or null for the first page
+     * @param limit      the requested page size, clamped to [1, {@value #MAX_PAGE_SIZE}]
+     * @return the page of order summaries and the cursor for the next page
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<OrderSummary> getCustomerOrders(String customerId, String before, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        logger.info("Fetching {} orders for customer {} before cursor {}", pageSize, customerId, before);
+        if (before == null || before.isBlank()) {
+            Function<String, CursorPage<OrderSummary>> loader = id ->
+                    toSummaryPage(orderRepository.findSummariesByCustomerID(id, Limit.of(pageSize)), pageSize);
+            return pageSize == DEFAULT_HISTORY_PAGE_SIZE
+                    ? customerHistoryCache.getFirstPage(customerId,
+                            id -> ReadWriteRoutingDataSource.onPrimary(() -> loader.apply(id)))
+                    : loader.apply(customerId);
+        }
+        KeysetCursor cursor = KeysetCursor.decode(before);
+        return toSummaryPage(orderRepository.findSummariesByCustomerIDBefore(customerId, cursor.sqlTimestamp(),
+                cursor.orderId(), Limit.of(pageSize)), pageSize);
+    }
+
+    private static CursorPage<OrderSummary> toSummaryPage(List<OrderSummary> summaries, int pageSize) {
+        OrderSummary last = summaries.size() == pageSize ? summaries.get(summaries.size() - 1) : null;
+        String nextCursor = last == null ? null : KeysetCursor.of(last.getCrtdTimeStamp(), last.getOrderId()).encode();
+        return new CursorPage<>(summaries, nextCursor);
+    }
+
+    /**
+     * Retrieves the orders changed since the given cursor, oldest change first, for incremental
+     * synchronisation. Pages are read with keyset pagination on (update time, order ID) in two
+     * statements: one for the keys and one for the orders with their items.
+     * <p>
+     * Changes newer than the safety lag are held back, so a transaction that stamped its rows
+     * before an already-visible one but committed after it is not skipped. The feed always reads
+     * the primary: a lagging replica could be missing changes older than the safety lag, and the
+     * cursor would move past them. Deleted and archived orders no longer appear in the feed.
+     *
+     * @param since the cursor returned with the previous page, or null to start from the beginning
+     * @param limit the requested page size, clamped to [1, {@value #MAX_PAGE_SIZE}]
+     * @return the changed orders and the cursor to resume from; the cursor is always returned
+     * once the feed has been read past its start, and an empty page means the consumer is caught up
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<Order> getOrderChanges(String since, int limit) {
+        return ReadWriteRoutingDataSource.onPrimary(() -> readOrderChanges(since, limit));
+    }
+
+    private CursorPage<Order> readOrderChanges(String since, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        Date updatedBefore = new Date(System.currentTimeMillis() - changeFeedSafetyLagMs);
+        logger.info("Fetching {} order changes since cursor {}", pageSize, since);
+        List<OrderRepository.ChangedOrder> changes;
+        if (since == null || since.isBlank()) {
+            changes = orderRepository.findChangedOrders(updatedBefore, Limit.of(pageSize));
+        } else {
+            KeysetCursor cursor = KeysetCursor.decode(since);
+            changes = orderRepository.findChangedOrdersAfter(cursor.sqlTimestamp(), cursor.orderId(),
+                    updatedBefore, Limit.of(pageSize));
+        }
+        if (changes.isEmpty()) {
+            return new CursorPage<>(List.of(), since == null || since.isBlank() ? null : since);
+        }
+        Map<String, Order> ordersById = orderRepository.findWithItemsByOrderIdIn(changes.stream()
+                        .map(OrderRepository.ChangedOrder::getOrderId)
+                        .toList())
+                .stream()
+                .collect(Collectors.toMap(Order::getOrderId, Function.identity()));
+        List<Order> orders = changes.stream()
+                .map(change -> ordersById.get(change.getOrderId()))
+                .filter(Objects::nonNull)
+                .toList();
+        OrderRepository.ChangedOrder last = changes.get(changes.size() - 1);
+        String nextCursor = KeysetCursor.of(last.getUptdTimeStamp(), last.getOrderId()).encode();
+        logger.debug("Retrieved {} order changes, next cursor {}", orders.size(), nextCursor);
+        return new CursorPage<>(orders, nextCursor);
+    }
+
+    /**
+     * Streams every order to the given consumer, one at a time, from a server-side cursor.
+     * Each order is detached once consumed so the persistence context does not grow with
+     * the table size.
+     *
+     * @param consumer receives each order in order ID order
+     */
+    @Transactional(readOnly = true)
+    public void streamAllOrders(Consumer<Order> consumer) {
+        logger.info("Streaming all orders");
+        try (Stream<Order> orders = orderRepository.streamAllByOrderId()) {
+            orders.forEach(order -> {
+                consumer.accept(order);
+                entityManager.detach(order);
+            });
+        }
     }
 
     /**
      * Retrieves an order by its unique ID.
+     * Orders are served from the in-process cache when present, and looked up in the
+     * archive when they are no longer in the live tables. Not read-only, so it always reads the
+     * primary: an order loaded from a lagging replica would stay in the cache after the
+     * invalidation for the newer change had already happened.
      *
      * @param orderId the unique identifier of the order
      * @return the order with the specified ID
@@ -55,11 +276,33 @@ public class OrderService {
      */
     public Order getOrderById(String orderId) {
         logger.info("Fetching order with ID: {}", orderId);
-        return orderRepository.findById(orderId)
-                .orElseThrow(() -> {
-                    logger.error("Order with ID {} not found", orderId);
-                    return new RuntimeException("Order not found");
-                });
+        Order order = orderCache.get(orderId, id -> orderRepository.findWithItemsByOrderId(id)
+                .or(() -> archiveEnabled ? orderArchiveRepository.findById(id) : Optional.empty())
+                .orElse(null));
+        if (order == null) {
+            logger.error("Order with ID {} not found", orderId);
+            throw new RuntimeException("Order not found");
+        }
+        return order;
+    }
+
+    /**
+     * Returns the entity tag of an order without loading its graph: from the cached order when
+     * there is one, otherwise from a query of its version and update timestamp on the primary,
+     * so a client is never told an order is unchanged from a version the primary has replaced.
+     *
+     * @param orderId the unique identifier of the order
+     * @return the quoted entity tag, or null if the order is not in the live tables
+     */
+    @Transactional(readOnly = true)
+    public String getOrderETag(String orderId) {
+        Order cached = orderCache.peek(orderId);
+        if (cached != null) {
+            return OrderETags.of(cached);
+        }
+        return ReadWriteRoutingDataSource.onPrimary(() -> orderRepository.findVersionByOrderId(orderId)
+                .map(version -> OrderETags.of(version.getVersion(), version.getUptdTimeStamp()))
+                .orElse(null));
     }
 
     /**
@@ -68,6 +311,7 @@ public class OrderService {
      * @param status the status of the orders to retrieve
      * @return a list of orders matching the specified status
      */
+    @Transactional(readOnly = true)
     public List<Order> getOrdersByStatus(EStatus status) {
         logger.info("Fetching orders with status: {}", status);
         List<Order> orders = orderRepository.findByStatus(status);
@@ -75,9 +319,54 @@ public class OrderService {
         return orders;
     }
 
+    /**
+     * Retrieves summaries of the orders with the given status, without loading entities.
+     *
+     * @param status the status of the orders
+     * @return summaries of the orders with the specified status
+     */
+    @Transactional(readOnly = true)
+    public List<OrderSummary> getOrderSummariesByStatus(EStatus status) {
+        logger.info("Fetching order summaries with status: {}", status);
+        return orderRepository.findSummariesByStatus(status);
+    }
+
+    /**
+     * Retrieves only the requested fields of the orders with the given status.
+     * The order ID is always included.
+     *
+     * @param status the status of the orders
+     * @param fields the JSON names of the fields to return
+     * @return the partial orders with the specified status
+     * @throws com.siopa.orders.exceptions.UnknownFieldException if a field cannot be selected
+     */
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getOrderFieldsByStatus(EStatus status, Collection<String> fields) {
+        logger.info("Fetching fields {} of orders with status: {}", fields, status);
+        return orderRepository.findFieldsByStatus(withOrderId(fields), status);
+    }
+
+    /**
+     * Counts orders with the given status from the in-memory counters.
+     *
+     * @param status  the status to count
+     * @param storeId restricts the count to one store, or null for all stores
+     * @return the total count and the count per store
+     */
+    public StatusCount countOrdersByStatus(EStatus status, String storeId) {
+        Map<String, Long> byStore = orderStatusCounters.countByStore(status);
+        if (storeId != null) {
+            byStore = Map.of(storeId, byStore.getOrDefault(storeId, 0L));
+        }
+        long count = byStore.values().stream().mapToLong(Long::longValue).sum();
+        return new StatusCount(status, count, byStore);
+    }
+
     /**
      * Creates a new order along with its associated order items.
-     * Sends order item quantities to Kafka for inventory management.
+     * Queues order item quantities in the outbox in the same transaction; they are
+     * relayed to Kafka for inventory management once the order is committed.
+     * The save, outbox and commit phases are each observed through {@link OrderMetrics}.
      *
      * @param request the order request containing customer details, store information, and items
      * @return the newly created order
@@ -86,63 +375,167 @@ public class OrderService {
     public Order createOrder(OrderRequest request) {
         logger.info("Creating a new order for customer ID: {}", request.getCustomerID());
 
-        Order savedOrder = orderRepository.save(Order.builder()
-                .customerID(request.getCustomerID())
-                .customerEmail(request.getCustomerEmail())
-                .forename(request.getForename())
-                .surname(request.getSurname())
-                .phoneNumber(request.getPhoneNumber())
-                .billingAddress(request.getBillingAddress())
-                .storeID(request.getStoreID())
-                .totalItemCost(request.getTotalItemCost())
-                .isDelivery(request.isDelivery())
-                .isCollection(request.isCollection())
-                .deliveryFee(request.getDeliveryFee())
-                .deliveryAddress(request.getDeliveryAddress())
-                .totalCost(request.getTotalCost())
-                .status(request.getStatus() != null ? request.getStatus() : EStatus.SUBMITTED)
-                .customerLat(request.getCustomerLat())
-                .customerLng(request.getCustomerLng())
-                .build()
-        );
-
-        logger.info("Order {} created successfully", savedOrder.getOrderId());
-
-        if (request.getOrderItems() != null && !request.getOrderItems().isEmpty()) {
-            List<OrderItem> orderItems = request.getOrderItems().stream().map(itemRequest ->
-                    OrderItem.builder()
-                            .productId(itemRequest.getProductId())
-                            .productName(itemRequest.getProductName())
-                            .quantity(itemRequest.getQuantity())
-                            .price(itemRequest.getPrice())
-                            .order(savedOrder)
-                            .build()
-            ).collect(Collectors.toList());
-
-            orderItemRepository.saveAll(orderItems);
-            logger.info("Saved {} order items for order ID: {}", orderItems.size(), savedOrder.getOrderId());
-        }
+        orderMetrics.observeCommit();
+        Order savedOrder = orderMetrics.observeCreatePhase("save",
+                () -> orderRepository.save(OrderMapper.toOrder(request)));
+        logger.info("Order {} created successfully with {} items", savedOrder.getOrderId(),
+                savedOrder.getOrderItems().size());
 
-        orderProducer.sendOrder(request.getOrderItems());
-        logger.info("Order items sent to Kafka for inventory management");
+        orderMetrics.observeCreatePhase("outbox",
+                () -> orderOutboxRepository.saveAll(OrderMapper.toOutboxEntries(savedOrder)));
+        logger.info("Order items queued in the outbox for inventory management");
 
+        eventPublisher.publishEvent(OrderEvent.created(savedOrder));
         return savedOrder;
     }
 
+    /**
+     * Creates a batch of orders in a single transaction.
+     * Orders, items and outbox entries are persisted with JDBC statement batching, so the
+     * number of database round trips grows with the batch size divided by the JDBC batch size
+     * rather than with the number of orders. Invalid orders are rejected individually and do not
+     * prevent the rest of the batch from being created.
+     *
+     * @param requests the order requests
+     * @return one result per request, in request order
+     */
+    @Transactional
+    public List<BatchOrderResult> createOrders(List<OrderRequest> requests) {
+        logger.info("Creating a batch of {} orders", requests.size());
+
+        List<BatchOrderResult> results = new ArrayList<>(requests.size());
+        List<Order> orders = new ArrayList<>(requests.size());
+        for (int i = 0; i < requests.size(); i++) {
+            String error = OrderMapper.validate(requests.get(i));
+            if (error != null) {
+                logger.warn("Rejecting order {} of batch: {}", i, error);
+                results.add(new BatchOrderResult(i, null, false, error));
+                orders.add(null);
+            } else {
+                orders.add(OrderMapper.toOrder(requests.get(i)));
+                results.add(null);
+            }
+        }
+
+        List<Order> accepted = orders.stream().filter(Objects::nonNull).collect(Collectors.toList());
+        orderRepository.saveAll(accepted);
+        orderOutboxRepository.saveAll(accepted.stream()
+                .flatMap(order -> OrderMapper.toOutboxEntries(order).stream())
+                .collect(Collectors.toList()));
+        accepted.forEach(order -> eventPublisher.publishEvent(OrderEvent.created(order)));
+
+        for (int i = 0; i < orders.size(); i++) {
+            if (orders.get(i) != null) {
+                results.set(i, new BatchOrderResult(i, orders.get(i).getOrderId(), true, null));
+            }
+        }
+        logger.info("Created {} of {} orders in batch", accepted.size(), requests.size());
+        return results;
+    }
+
     /**
      * Updates the status of an existing order.
+     * The transition is validated against the allowed {@link EStatus} transitions and applied
+     * with a single conditional update, so a concurrent change to the same order cannot be lost.
      *
      * @param orderId the unique identifier of the order
      * @param status  the new status to be assigned
      * @return the updated order with the modified status
+     * @throws InvalidStatusTransitionException if the order's current status cannot move to the new status
      */
+    @Transactional
     public Order updateOrderStatus(String orderId, EStatus status) {
         logger.info("Updating order ID {} to status {}", orderId, status);
-        Order order = getOrderById(orderId);
-        order.setStatus(status);
-        Order updatedOrder = orderRepository.save(order);
-        logger.info("Order ID {} updated to status {}", orderId, status);
-        return updatedOrder;
+        Set<EStatus> fromStatuses = status.previousStatuses();
+        int updated = fromStatuses.isEmpty() ? 0
+                : orderRepository.transitionStatus(orderId, status, fromStatuses, new Date());
+
+        Order order = orderRepository.findById(orderId)
+                .orElseThrow(() -> {
+                    logger.error("Order with ID {} not found", orderId);
+                    return new RuntimeException("Order not found");
+                });
+        if (updated == 0) {
+            logger.warn("Rejected transition of order ID {} from {} to {}", orderId, order.getStatus(), status);
+            throw new InvalidStatusTransitionException(orderId, order.getStatus(), status);
+        }
+
+        eventPublisher.publishEvent(OrderEvent.statusChanged(order, order.getPreviousStatus(), status));
+        logger.info("Order ID {} updated from {} to status {}", orderId, order.getPreviousStatus(), status);
+        return order;
+    }
+
+    /**
+     * Moves several orders to the same status in one transaction.
+     * The orders are read and locked with one query, validated against the allowed transitions,
+     * and the valid ones are updated with one set-based statement. Notifications for all updated
+     * orders are published together once the transaction commits.
+     *
+     * @param orderIds the unique identifiers of the orders
+     * @param status   the new status to be assigned
+     * @return one result per distinct order ID, in request order
+     */
+    @Transactional
+    public List<StatusUpdateResult> updateOrderStatuses(Collection<String> orderIds, EStatus status) {
+        Set<String> distinctIds = new LinkedHashSet<>(orderIds);
+        logger.info("Updating {} orders to status {}", distinctIds.size(), status);
+
+        Map<String, Order> orders = orderRepository.findAllForUpdate(distinctIds).stream()
+                .collect(Collectors.toMap(Order::getOrderId, Function.identity()));
+        List<String> eligibleIds = orders.values().stream()
+                .filter(order -> order.getStatus().canTransitionTo(status))
+                .map(Order::getOrderId)
+                .collect(Collectors.toList());
+        if (!eligibleIds.isEmpty()) {
+            orderRepository.transitionStatuses(eligibleIds, status, status.previousStatuses(), new Date());
+        }
+
+        List<StatusUpdateResult> results = new ArrayList<>(distinctIds.size());
+        for (String orderId : distinctIds) {
+            Order order = orders.get(orderId);
+            if (order == null) {
+                results.add(new StatusUpdateResult(orderId, StatusUpdateResult.Outcome.NOT_FOUND, null, null));
+            } else if (!order.getStatus().canTransitionTo(status)) {
+                results.add(new StatusUpdateResult(orderId, StatusUpdateResult.Outcome.INVALID_TRANSITION,
+                        order.getStatus(), order.getStatus()));
+            } else {
+                EStatus previousStatus = order.getStatus();
+                order.setPreviousStatus(previousStatus);
+                order.setStatus(status);
+                eventPublisher.publishEvent(OrderEvent.statusChanged(order, previousStatus, status));
+                results.add(new StatusUpdateResult(orderId, StatusUpdateResult.Outcome.UPDATED, previousStatus, status));
+            }
+        }
+        logger.info("Updated {} of {} orders to status {}", eligibleIds.size(), distinctIds.size(), status);
+        return results;
+    }
+
+    /**
+     * Applies a batch of status changes to many orders in one transaction.
+     * Changes are applied in rounds, taking the next status of every order in each round, and
+     * within a round the orders moving to the same status are updated together by
+     * {@link #updateOrderStatuses}. Each order therefore goes through its statuses in order and
+     * a rejected change does not affect the other orders.
+     *
+     * @param changes the statuses to apply to each order, oldest first
+     * @return one result per applied or rejected change
+     */
+    @Transactional
+    public List<StatusUpdateResult> applyStatusChanges(Map<String, List<EStatus>> changes) {
+        List<StatusUpdateResult> results = new ArrayList<>();
+        for (int round = 0; ; round++) {
+            Map<EStatus, List<String>> byStatus = new EnumMap<>(EStatus.class);
+            for (Map.Entry<String, List<EStatus>> change : changes.entrySet()) {
+                if (round < change.getValue().size()) {
+                    byStatus.computeIfAbsent(change.getValue().get(round), status -> new ArrayList<>())
+                            .add(change.getKey());
+                }
+            }
+            if (byStatus.isEmpty()) {
+                return results;
+            }
+            byStatus.forEach((status, orderIds) -> results.addAll(updateOrderStatuses(orderIds, status)));
+        }
     }
 
     /**
@@ -150,9 +543,13 @@ public class OrderService {
      *
      * @param orderId the unique identifier of the order to be deleted
      */
+    @Transactional
     public void deleteOrder(String orderId) {
         logger.warn("Deleting order with ID: {}", orderId);
-        orderRepository.deleteById(orderId);
+        orderRepository.findById(orderId).ifPresent(order -> {
+            orderRepository.delete(order);
+            eventPublisher.publishEvent(OrderEvent.deleted(order));
+        });
         logger.info("Order ID {} deleted successfully", orderId);
     }
 }
@@ -0,0 +1,107 @@
+package com.siopa.orders.services;
+
+import com.siopa.orders.events.OrderEvent;
+import com.siopa.orders.models.EStatus;
+import com.siopa.orders.repositories.OrderRepository;
+import com.siopa.orders.repositories.OrderRepository.StoreStatusCount;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-memory count of orders per store and status.
+ * Counts are maintained incrementally from committed order events, so reads are O(1) per store
+ * and never touch the database. They are rebuilt from a grouped count query on startup and
+ * periodically, which corrects drift from changes made by other nodes or outside the service.
+ */
+@Component
+public class OrderStatusCounters {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderStatusCounters.class);
+
+    private final OrderRepository orderRepository;
+
+    private volatile Map<String, EnumMap<EStatus, LongAdder>> counts = new ConcurrentHashMap<>();
+
+    public OrderStatusCounters(OrderRepository orderRepository) {
+        this.orderRepository = orderRepository;
+    }
+
+    /**
+     * Returns the number of orders with the given status in each store that has any.
+     *
+     * @param status the order status
+     * @return the number of orders keyed by store ID
+     */
+    public Map<String, Long> countByStore(EStatus status) {
+        Map<String, Long> byStore = new TreeMap<>();
+        counts.forEach((storeId, storeCounts) -> {
+            long count = storeCounts.get(status).sum();
+            if (count != 0) {
+                byStore.put(storeId, count);
+            }
+        });
+        return byStore;
+    }
+
+    /**
+     * Applies a committed order change to the counts.
+     *
+     * @param event the order event
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderEvent(OrderEvent event) {
+        switch (event.getType()) {
+            case CREATED -> add(event.getStoreID(), event.getStatus(), 1);
+            case STATUS_CHANGED -> {
+                add(event.getStoreID(), event.getPreviousStatus(), -1);
+                add(event.getStoreID(), event.getStatus(), 1);
+            }
+            case DELETED -> add(event.getStoreID(), event.getStatus(), -1);
+        }
+    }
+
+    /**
+     * Rebuilds the counts from the database.
+     * Changes that commit while the count query runs may be missed or counted twice;
+     * the next reconciliation corrects them.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${orders.counters.reconcile-interval-ms:300000}",
+            fixedDelayString = "${orders.counters.reconcile-interval-ms:300000}")
+    public void reconcile() {
+        Map<String, EnumMap<EStatus, LongAdder>> rebuilt = new ConcurrentHashMap<>();
+        for (StoreStatusCount row : orderRepository.countByStoreAndStatus()) {
+            storeCounts(rebuilt, row.getStoreID()).get(row.getStatus()).add(row.getCount());
+        }
+        counts = rebuilt;
+        logger.info("Reconciled order status counters for {} stores", rebuilt.size());
+    }
+
+    private void add(String storeId, EStatus status, long delta) {
+        if (storeId != null && status != null) {
+            storeCounts(counts, storeId).get(status).add(delta);
+        }
+    }
+
+    private static EnumMap<EStatus, LongAdder> storeCounts(Map<String, EnumMap<EStatus, LongAdder>> counts,
+                                                           String storeId) {
+        return counts.computeIfAbsent(storeId, id -> {
+            EnumMap<EStatus, LongAdder> storeCounts = new EnumMap<>(EStatus.class);
+            for (EStatus status : EStatus.values()) {
+                storeCounts.put(status, new LongAdder());
+            }
+            return storeCounts;
+        });
+    }
+}
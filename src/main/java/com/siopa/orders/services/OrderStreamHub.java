@@ -0,0 +1,270 @@
+package com.siopa.orders.services;
+
+import com.siopa.orders.dto.OrderStatusEvent;
+import com.siopa.orders.events.OrderEvent;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.Date;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Fan-out hub that pushes committed order changes to server-sent event subscribers,
+ * either for every order of a store or for a single order.
+ * Idle connections hold no thread: each subscriber has a bounded buffer that a small shared
+ * dispatcher pool drains only when events are pending. Writes to the connection happen on a
+ * separate sender pool and the dispatcher waits for them only up to a send timeout, so a client
+ * that stops reading cannot tie up the dispatcher. A subscriber whose buffer fills up, or whose
+ * write times out, is evicted so that one slow client cannot hold back the others.
+ * <p>
+ * The sender pool has a fixed number of threads and a bounded queue of writes. A write that times
+ * out may keep its thread until the container gives up on the connection, so a wave of stuck
+ * clients can saturate the pool; further subscribers are then evicted rather than queued behind
+ * them, and the thread count never grows past the configured size.
+ */
+@Component
+public class OrderStreamHub {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderStreamHub.class);
+
+    private static final Object HEARTBEAT = new Object();
+
+    private final Map<String, Set<Subscriber>> storeSubscribers = new ConcurrentHashMap<>();
+    private final Map<String, Set<Subscriber>> orderSubscribers = new ConcurrentHashMap<>();
+    private final ExecutorService dispatcher;
+    private final ThreadPoolExecutor sender;
+    private final int bufferSize;
+    private final long timeoutMs;
+    private final long sendTimeoutMs;
+
+    public OrderStreamHub(@Value("${orders.stream.dispatch-threads:4}") int dispatchThreads,
+                          @Value("${orders.stream.buffer-size:32}") int bufferSize,
+                          @Value("${orders.stream.timeout-ms:1800000}") long timeoutMs,
+                          @Value("${orders.stream.send-timeout-ms:5000}") long sendTimeoutMs,
+                          @Value("${orders.stream.send-threads:16}") int sendThreads,
+                          @Value("${orders.stream.send-queue-size:64}") int sendQueueSize) {
+        this.dispatcher = Executors.newFixedThreadPool(dispatchThreads);
+        this.sender = new ThreadPoolExecutor(sendThreads, sendThreads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(sendQueueSize), new CustomizableThreadFactory("order-stream-sender-"));
+        this.sender.allowCoreThreadTimeOut(true);
+        this.bufferSize = bufferSize;
+        this.timeoutMs = timeoutMs;
+        this.sendTimeoutMs = sendTimeoutMs;
+    }
+
+    /**
+     * Subscribes to changes of every order of a store.
+     *
+     * @param storeId the store ID
+     * @return the emitter to return from the controller
+     */
+    public SseEmitter subscribeToStore(String storeId) {
+        return subscribe(storeSubscribers, storeId);
+    }
+
+    /**
+     * Subscribes to changes of a single order.
+     *
+     * @param orderId the order ID
+     * @return the emitter to return from the controller
+     */
+    public SseEmitter subscribeToOrder(String orderId) {
+        return subscribe(orderSubscribers, orderId);
+    }
+
+    /**
+     * Pushes a committed order change to the subscribers of its store and of the order itself.
+     *
+     * @param event the order event
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderEvent(OrderEvent event) {
+        OrderStatusEvent payload = new OrderStatusEvent(event.getOrderId(), event.getStoreID(), event.getType(),
+                event.getPreviousStatus(), event.getStatus(), new Date());
+        publish(storeSubscribers.get(event.getStoreID()), payload);
+        publish(orderSubscribers.get(event.getOrderId()), payload);
+    }
+
+    /**
+     * Sends a comment to every subscriber so that intermediaries keep idle connections open
+     * and closed connections are detected.
+     */
+    @Scheduled(fixedDelayString = "${orders.stream.heartbeat-ms:20000}")
+    public void heartbeat() {
+        storeSubscribers.values().forEach(subscribers -> publish(subscribers, HEARTBEAT));
+        orderSubscribers.values().forEach(subscribers -> publish(subscribers, HEARTBEAT));
+    }
+
+    /**
+     * Completes every open stream and stops the dispatcher.
+     */
+    @PreDestroy
+    public void shutdown() {
+        storeSubscribers.values().forEach(subscribers -> subscribers.forEach(s -> s.emitter.complete()));
+        orderSubscribers.values().forEach(subscribers -> subscribers.forEach(s -> s.emitter.complete()));
+        dispatcher.shutdown();
+        sender.shutdownNow();
+    }
+
+    /**
+     * Returns the number of open streams for a store.
+     */
+    int storeSubscriberCount(String storeId) {
+        return storeSubscribers.getOrDefault(storeId, Set.of()).size();
+    }
+
+    /**
+     * Returns the number of threads in the sender pool.
+     */
+    int senderThreadCount() {
+        return sender.getPoolSize();
+    }
+
+    /**
+     * Creates the emitter of a new subscriber.
+     */
+    SseEmitter createEmitter(long timeoutMs) {
+        return new SseEmitter(timeoutMs);
+    }
+
+    private SseEmitter subscribe(Map<String, Set<Subscriber>> subscribers, String key) {
+        Subscriber subscriber = new Subscriber(createEmitter(timeoutMs), new ArrayBlockingQueue<>(bufferSize),
+                subscribers, key);
+        subscribers.computeIfAbsent(key, k -> ConcurrentHashMap.newKeySet()).add(subscriber);
+        subscriber.emitter.onCompletion(subscriber::close);
+        subscriber.emitter.onTimeout(subscriber::close);
+        subscriber.emitter.onError(e -> subscriber.close());
+        logger.debug("New order stream subscriber for {}", key);
+        return subscriber.emitter;
+    }
+
+    private void publish(Set<Subscriber> subscribers, Object payload) {
+        if (subscribers != null) {
+            subscribers.forEach(subscriber -> subscriber.offer(payload));
+        }
+    }
+
+    /**
+     * A single SSE connection with its pending events.
+     */
+    private class Subscriber {
+
+        private final SseEmitter emitter;
+        private final BlockingQueue<Object> buffer;
+        private final Map<String, Set<Subscriber>> subscribers;
+        private final String key;
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        private Subscriber(SseEmitter emitter, BlockingQueue<Object> buffer,
+                           Map<String, Set<Subscriber>> subscribers, String key) {
+            this.emitter = emitter;
+            this.buffer = buffer;
+            this.subscribers = subscribers;
+            this.key = key;
+        }
+
+        private void offer(Object payload) {
+            if (closed.get()) {
+                return;
+            }
+            if (!buffer.offer(payload)) {
+                logger.warn("Evicting slow order stream subscriber for {} after {} pending events", key, buffer.size());
+                close();
+                emitter.complete();
+                return;
+            }
+            scheduleDrain();
+        }
+
+        /**
+         * Stops delivering to this subscriber and removes it from the hub. Safe to call more than once.
+         */
+        private void close() {
+            if (closed.compareAndSet(false, true)) {
+                subscribers.computeIfPresent(key, (k, set) -> {
+                    set.remove(this);
+                    return set.isEmpty() ? null : set;
+                });
+                buffer.clear();
+            }
+        }
+
+        private void scheduleDrain() {
+            if (draining.compareAndSet(false, true)) {
+                dispatcher.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            try {
+                Object payload;
+                while (!closed.get() && (payload = buffer.poll()) != null) {
+                    send(payload);
+                }
+            } catch (Exception e) {
+                logger.debug("Evicting order stream subscriber for {} after a failed send", key, e);
+                close();
+                emitter.completeWithError(e);
+                return;
+            } finally {
+                draining.set(false);
+            }
+            if (!closed.get() && !buffer.isEmpty()) {
+                scheduleDrain();
+            }
+        }
+
+        /**
+         * Writes one event on the sender pool, waiting at most the send timeout. A write that times
+         * out is interrupted, or dropped from the queue if it never started; a started write's thread
+         * is released once the container gives up on the connection. Fails at once if the sender pool
+         * is saturated.
+         */
+        private void send(Object payload) throws Exception {
+            Future<?> write;
+            try {
+                write = sender.submit(() -> {
+                    if (payload == HEARTBEAT) {
+                        emitter.send(SseEmitter.event().comment("heartbeat"));
+                    } else {
+                        emitter.send(SseEmitter.event().name("order").data(payload));
+                    }
+                    return null;
+                });
+            } catch (RejectedExecutionException e) {
+                logger.warn("Order stream sender pool is saturated, evicting subscriber for {}", key);
+                throw e;
+            }
+            try {
+                write.get(sendTimeoutMs, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                write.cancel(true);
+                sender.remove((Runnable) write);
+                throw e;
+            } catch (ExecutionException e) {
+                throw e.getCause() instanceof Exception cause ? cause : e;
+            }
+        }
+    }
+}
@@ -0,0 +1,72 @@
+-- Converts the UUID-valued columns of the order tables from varchar to native uuid.
+--
+-- Native uuid keys are 16 bytes instead of 36 and, together with the time-ordered version 7
+-- keys the service generates, keep primary key inserts on the right-hand edge of the index.
+-- Existing random (version 4) values are valid uuid values and are converted in place.
+--
+-- Each ALTER rewrites its table under an ACCESS EXCLUSIVE lock, so run this in a maintenance
+-- window. After applying it:
+--   * add stringtype=unspecified to the JDBC URL so that the String-typed entity fields bind
+--     to uuid parameters, e.g. jdbc:postgresql://host/orders?stringtype=unspecified
+--   * set spring.jpa.hibernate.ddl-auto to none, since Hibernate maps these fields as varchar.
+-- Every value must be a valid UUID; the conversion fails and rolls back otherwise.
+--
+-- The archive tables from orders-archive.sql, and the rollup tables, are converted too when they
+-- exist, so archival keeps copying uuid columns into uuid columns. Altering a partitioned archive
+-- table converts all of its partitions.
+
+BEGIN;
+
+DO $$
+DECLARE
+    fk record;
+BEGIN
+    FOR fk IN SELECT conname FROM pg_constraint
+              WHERE conrelid = 'order_items'::regclass AND contype = 'f' LOOP
+        EXECUTE format('ALTER TABLE order_items DROP CONSTRAINT %I', fk.conname);
+    END LOOP;
+END $$;
+
+ALTER TABLE orders
+    ALTER COLUMN order_id TYPE uuid USING order_id::uuid,
+    ALTER COLUMN customerid TYPE uuid USING customerid::uuid,
+    ALTER COLUMN storeid TYPE uuid USING storeid::uuid;
+
+ALTER TABLE order_items
+    ALTER COLUMN order_item_id TYPE uuid USING order_item_id::uuid,
+    ALTER COLUMN order_id TYPE uuid USING order_id::uuid,
+    ALTER COLUMN product_id TYPE uuid USING product_id::uuid;
+
+ALTER TABLE order_items
+    ADD CONSTRAINT fk_order_items_order FOREIGN KEY (order_id) REFERENCES orders (order_id);
+
+ALTER TABLE order_outbox
+    ALTER COLUMN order_id TYPE uuid USING order_id::uuid,
+    ALTER COLUMN storeid TYPE uuid USING storeid::uuid,
+    ALTER COLUMN product_id TYPE uuid USING product_id::uuid;
+
+DO $$
+BEGIN
+    IF to_regclass('orders_archive') IS NOT NULL THEN
+        ALTER TABLE orders_archive
+            ALTER COLUMN order_id TYPE uuid USING order_id::uuid,
+            ALTER COLUMN customerid TYPE uuid USING customerid::uuid,
+            ALTER COLUMN storeid TYPE uuid USING storeid::uuid;
+    END IF;
+    IF to_regclass('order_items_archive') IS NOT NULL THEN
+        ALTER TABLE order_items_archive
+            ALTER COLUMN order_item_id TYPE uuid USING order_item_id::uuid,
+            ALTER COLUMN order_id TYPE uuid USING order_id::uuid,
+            ALTER COLUMN product_id TYPE uuid USING product_id::uuid;
+    END IF;
+    IF to_regclass('order_rollups') IS NOT NULL THEN
+        ALTER TABLE order_rollups
+            ALTER COLUMN storeid TYPE uuid USING storeid::uuid;
+    END IF;
+    IF to_regclass('order_rollup_deltas') IS NOT NULL THEN
+        ALTER TABLE order_rollup_deltas
+            ALTER COLUMN storeid TYPE uuid USING storeid::uuid;
+    END IF;
+END $$;
+
+COMMIT;
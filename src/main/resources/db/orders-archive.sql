@@ -0,0 +1,48 @@
+-- Cold storage for orders in terminal states, used by OrderArchiver when orders.archive.enabled=true.
+--
+-- Both tables are range-partitioned by the order's creation time. OrderArchiver creates one
+-- partition per calendar month before it moves orders into it, so old months can be detached,
+-- dumped or dropped independently. Partitioned tables require the partition key in every unique
+-- constraint, hence the composite primary keys; lookups by ID use the separate indexes.
+-- Create these tables before applying native-uuid-keys.sql, which converts their ID columns
+-- along with the live tables.
+
+CREATE TABLE IF NOT EXISTS orders_archive (
+    order_id            varchar(255)   NOT NULL,
+    customerid          varchar(255)   NOT NULL,
+    customer_email      varchar(255)   NOT NULL,
+    forename            varchar(255),
+    surname             varchar(255),
+    phone_number        varchar(255),
+    storeid             varchar(255)   NOT NULL,
+    total_item_cost     numeric(38, 2) NOT NULL,
+    is_delivery         boolean        NOT NULL,
+    is_collection       boolean        NOT NULL,
+    delivery_fee        numeric(38, 2),
+    delivery_address    varchar(255),
+    billing_address     varchar(255),
+    total_cost          numeric(38, 2) NOT NULL,
+    status              varchar(255)   NOT NULL,
+    previous_status     varchar(255),
+    customer_lat        float8         NOT NULL,
+    customer_lng        float8         NOT NULL,
+    crtd_time_stamp     timestamp(6)   NOT NULL,
+    uptd_time_stamp     timestamp(6),
+    archived_time_stamp timestamp(6)   NOT NULL DEFAULT now(),
+    PRIMARY KEY (order_id, crtd_time_stamp)
+) PARTITION BY RANGE (crtd_time_stamp);
+
+CREATE INDEX IF NOT EXISTS idx_orders_archive_order_id ON orders_archive (order_id);
+
+CREATE TABLE IF NOT EXISTS order_items_archive (
+    order_item_id   varchar(255)   NOT NULL,
+    order_id        varchar(255)   NOT NULL,
+    product_id      varchar(255)   NOT NULL,
+    product_name    varchar(255)   NOT NULL,
+    quantity        integer        NOT NULL,
+    price           numeric(38, 2) NOT NULL,
+    crtd_time_stamp timestamp(6)   NOT NULL,
+    PRIMARY KEY (order_item_id, crtd_time_stamp)
+) PARTITION BY RANGE (crtd_time_stamp);
+
+CREATE INDEX IF NOT EXISTS idx_order_items_archive_order_id ON order_items_archive (order_id);
@@ -0,0 +1,109 @@
+package com.siopa.orders.controllers;
+
+import com.siopa.orders.dto.OrderRequest;
+import com.siopa.orders.models.EStatus;
+import com.siopa.orders.models.Order;
+import com.siopa.orders.repositories.OrderRepository;
+import com.siopa.orders.services.OrderMapper;
+import com.siopa.orders.services.OrderService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Tests for the entity tags of {@link OrderController} and the conditional requests they answer.
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:etag_ctx;DB_CLOSE_DELAY=-1")
+@AutoConfigureMockMvc
+class OrderControllerETagTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Test
+    void matchingIfNoneMatchIsAnsweredWithNotModified() throws Exception {
+        String orderId = saveOrder();
+
+        String eTag = eTagOf("/api/orders/" + orderId);
+        assertTrue(eTag.startsWith("\"0-"));
+
+        mockMvc.perform(get("/api/orders/" + orderId).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, eTag))
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    void statusUpdateBumpsTheVersionSoAStaleIfNoneMatchGetsTheOrder() throws Exception {
+        String orderId = saveOrder();
+        String stale = eTagOf("/api/orders/" + orderId);
+
+        orderService.updateOrderStatus(orderId, EStatus.PREPARING);
+
+        assertEquals(1, orderRepository.findById(orderId).orElseThrow().getVersion());
+        String current = mockMvc.perform(get("/api/orders/" + orderId).header(HttpHeaders.IF_NONE_MATCH, stale))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("PREPARING"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertTrue(current.startsWith("\"1-"));
+    }
+
+    @Test
+    void listETagsChangeWhenAMemberChanges() throws Exception {
+        String orderId = saveOrder();
+        String listETag = eTagOf("/api/orders/status/SUBMITTED");
+        String pageETag = eTagOf("/api/orders?limit=1000");
+
+        mockMvc.perform(get("/api/orders/status/SUBMITTED").header(HttpHeaders.IF_NONE_MATCH, listETag))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get("/api/orders?limit=1000").header(HttpHeaders.IF_NONE_MATCH, pageETag))
+                .andExpect(status().isNotModified());
+
+        orderService.updateOrderStatus(orderId, EStatus.PREPARING);
+
+        mockMvc.perform(get("/api/orders/status/SUBMITTED").header(HttpHeaders.IF_NONE_MATCH, listETag))
+                .andExpect(status().isOk());
+        assertNotEquals(pageETag, mockMvc.perform(get("/api/orders?limit=1000")
+                        .header(HttpHeaders.IF_NONE_MATCH, pageETag))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG));
+    }
+
+    private String eTagOf(String path) throws Exception {
+        return mockMvc.perform(get(path))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+    }
+
+    private String saveOrder() {
+        Order order = OrderMapper.toOrder(new OrderRequest());
+        order.setCustomerID("etag-customer");
+        order.setCustomerEmail("etag@example.com");
+        order.setStoreID("etag-store");
+        order.setTotalItemCost(BigDecimal.TEN);
+        order.setTotalCost(BigDecimal.TEN);
+        order.setStatus(EStatus.SUBMITTED);
+        return orderRepository.save(order).getOrderId();
+    }
+}
@@ -0,0 +1,160 @@
+package com.siopa.orders.datasource;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Tests read/write routing against two embedded databases standing in for a primary and a replica.
+ */
+class ReadWriteRoutingDataSourceTest {
+
+    private final DataSource primary = new DriverManagerDataSource("jdbc:h2:mem:routing_primary;DB_CLOSE_DELAY=-1");
+    private final DataSource replica = new DriverManagerDataSource("jdbc:h2:mem:routing_replica;DB_CLOSE_DELAY=-1");
+
+    @AfterEach
+    void tearDown() {
+        ReadWriteRoutingDataSource.unpin();
+    }
+
+    @Test
+    void readOnlyTransactionsUseTheReplica() {
+        Routing routing = new Routing("SELECT 0");
+
+        assertEquals("ROUTING_PRIMARY", routing.database(false));
+        assertEquals("ROUTING_REPLICA", routing.database(true));
+        assertEquals("ROUTING_PRIMARY", routing.jdbcTemplate.queryForObject("SELECT DATABASE()", String.class));
+    }
+
+    @Test
+    void replicasBeyondTheLagToleranceAreSkipped() {
+        assertEquals("ROUTING_PRIMARY", new Routing("SELECT 60000").database(true));
+        assertEquals("ROUTING_PRIMARY", new Routing("SELECT no_such_column").database(true));
+    }
+
+    @Test
+    void onPrimaryOverridesReadOnlyRoutingAndRestoresIt() {
+        Routing routing = new Routing("SELECT 0");
+
+        assertEquals("ROUTING_PRIMARY", ReadWriteRoutingDataSource.onPrimary(() -> routing.database(true)));
+        assertEquals("ROUTING_REPLICA", routing.database(true));
+    }
+
+    @Test
+    void clientsReadTheirOwnWritesFromThePrimaryOnAnyNode() throws Exception {
+        Routing routing = new Routing("SELECT 0");
+        ReadYourWritesFilter node1 = new ReadYourWritesFilter(60_000);
+        ReadYourWritesFilter node2 = new ReadYourWritesFilter(60_000);
+        AtomicReference<String> database = new AtomicReference<>();
+        AtomicReference<String> lastWriteDuringWrite = new AtomicReference<>();
+        FilterChain read = (request, response) -> database.set(routing.database(true));
+        FilterChain write = (request, response) -> {
+            lastWriteDuringWrite.set(((MockHttpServletResponse) response).getHeader(ReadYourWritesFilter.LAST_WRITE_HEADER));
+            database.set(routing.database(false));
+        };
+
+        node1.doFilter(new MockHttpServletRequest("GET", "/api/orders"), new MockHttpServletResponse(), read);
+        assertEquals("ROUTING_REPLICA", database.get());
+
+        MockHttpServletResponse written = new MockHttpServletResponse();
+        node1.doFilter(new MockHttpServletRequest("PATCH", "/api/orders/1"), written, write);
+        assertEquals("ROUTING_PRIMARY", database.get());
+        assertNotNull(lastWriteDuringWrite.get());
+
+        MockHttpServletRequest withCookie = new MockHttpServletRequest("GET", "/api/orders");
+        withCookie.setCookies(written.getCookies());
+        node2.doFilter(withCookie, new MockHttpServletResponse(), read);
+        assertEquals("ROUTING_PRIMARY", database.get());
+
+        MockHttpServletRequest withHeader = new MockHttpServletRequest("GET", "/api/orders");
+        withHeader.addHeader(ReadYourWritesFilter.LAST_WRITE_HEADER, lastWriteDuringWrite.get());
+        node2.doFilter(withHeader, new MockHttpServletResponse(), read);
+        assertEquals("ROUTING_PRIMARY", database.get());
+
+        MockHttpServletRequest expired = new MockHttpServletRequest("GET", "/api/orders");
+        expired.addHeader(ReadYourWritesFilter.LAST_WRITE_HEADER, System.currentTimeMillis() - 120_000);
+        node2.doFilter(expired, new MockHttpServletResponse(), read);
+        assertEquals("ROUTING_REPLICA", database.get());
+    }
+
+    @Test
+    void implausibleLastWriteTimesAreIgnored() throws Exception {
+        Routing routing = new Routing("SELECT 0");
+        ReadYourWritesFilter filter = new ReadYourWritesFilter(60_000);
+        AtomicReference<String> database = new AtomicReference<>();
+        FilterChain read = (request, response) -> database.set(routing.database(true));
+
+        MockHttpServletRequest future = new MockHttpServletRequest("GET", "/api/orders");
+        future.addHeader(ReadYourWritesFilter.LAST_WRITE_HEADER, System.currentTimeMillis() + 3_600_000);
+        filter.doFilter(future, new MockHttpServletResponse(), read);
+        assertEquals("ROUTING_REPLICA", database.get());
+
+        MockHttpServletRequest malformed = new MockHttpServletRequest("GET", "/api/orders");
+        malformed.setCookies(new Cookie("orders-last-write", "yesterday"));
+        filter.doFilter(malformed, new MockHttpServletResponse(), read);
+        assertEquals("ROUTING_REPLICA", database.get());
+    }
+
+    @Test
+    void staleLagChecksSendReadsToThePrimary() throws Exception {
+        ReplicaLagMonitor monitor = new ReplicaLagMonitor(Map.of("replica-0", replica), "SELECT 0", 5000, 20,
+                new SimpleMeterRegistry());
+        monitor.checkLag();
+        assertEquals("replica-0", monitor.nextReplica());
+
+        Thread.sleep(ReplicaLagMonitor.STALE_AFTER_CHECKS * 20 + 50);
+        assertNull(monitor.nextReplica());
+
+        monitor.start();
+        Thread.sleep(50);
+        assertEquals("replica-0", monitor.nextReplica());
+        monitor.close();
+    }
+
+    /**
+     * A routing data source over the two databases, as {@link ReplicaRoutingConfig} wires it.
+     */
+    private class Routing {
+
+        private final JdbcTemplate jdbcTemplate;
+        private final DataSourceTransactionManager transactionManager;
+
+        Routing(String lagQuery) {
+            ReplicaLagMonitor monitor = new ReplicaLagMonitor(Map.of("replica-0", replica), lagQuery, 5000, 60_000,
+                    new SimpleMeterRegistry());
+            monitor.checkLag();
+            ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource(monitor);
+            Map<Object, Object> targets = new HashMap<>(monitor.getReplicas());
+            targets.put(ReadWriteRoutingDataSource.PRIMARY, primary);
+            routing.setTargetDataSources(targets);
+            routing.afterPropertiesSet();
+            DataSource dataSource = new LazyConnectionDataSourceProxy(routing);
+            this.jdbcTemplate = new JdbcTemplate(dataSource);
+            this.transactionManager = new DataSourceTransactionManager(dataSource);
+        }
+
+        String database(boolean readOnly) {
+            TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+            transaction.setReadOnly(readOnly);
+            return transaction.execute(status -> jdbcTemplate.queryForObject("SELECT DATABASE()", String.class));
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.siopa.orders.datasource;
+
+import com.siopa.orders.dto.OrderRequest;
+import com.siopa.orders.models.EStatus;
+import com.siopa.orders.models.Order;
+import com.siopa.orders.repositories.OrderRepository;
+import com.siopa.orders.services.OrderMapper;
+import com.siopa.orders.services.OrderService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests replica routing through the JPA transaction manager with two embedded databases. The
+ * replica is a snapshot of the primary taken before the order changes status, so each read shows
+ * which database served it.
+ */
+@SpringBootTest(properties = {
+        "orders.datasource.routing.enabled=true",
+        "spring.datasource.url=jdbc:h2:mem:routing_ctx_primary;DB_CLOSE_DELAY=-1",
+        "orders.datasource.replicas=jdbc:h2:mem:routing_ctx_replica;DB_CLOSE_DELAY=-1",
+        "orders.datasource.replica.lag-query=SELECT 0",
+        "orders.changes.safety-lag-ms=-1000"
+})
+class ReplicaRoutingIntegrationTest {
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private DataSource primaryDataSource;
+
+    @Autowired
+    private ReplicaLagMonitor replicaLagMonitor;
+
+    @Test
+    void readOnlyServiceMethodsUseTheReplicaUnlessPinnedToThePrimary() {
+        String orderId = transactionTemplate.execute(status -> orderRepository.save(newOrder()).getOrderId());
+        copyPrimaryToReplica();
+        replicaLagMonitor.checkLag();
+
+        orderService.updateOrderStatus(orderId, EStatus.PREPARING);
+
+        assertEquals(1, orderService.getOrderSummariesByStatus(EStatus.SUBMITTED).size());
+        assertEquals(0, orderService.getOrderSummariesByStatus(EStatus.PREPARING).size());
+
+        assertTrue(orderService.getOrderETag(orderId).startsWith("\"1-"));
+        assertEquals(EStatus.PREPARING,
+                orderService.getCustomerOrders("routing-customer", null, 20).getItems().get(0).getStatus());
+        assertEquals(EStatus.PREPARING, orderService.getOrderChanges(null, 10).getItems().stream()
+                .filter(order -> order.getOrderId().equals(orderId))
+                .findFirst()
+                .orElseThrow()
+                .getStatus());
+    }
+
+    private void copyPrimaryToReplica() {
+        JdbcTemplate replica = new JdbcTemplate(replicaLagMonitor.getReplicas().get("replica-0"));
+        for (String statement : new JdbcTemplate(primaryDataSource).queryForList("SCRIPT", String.class)) {
+            replica.execute(statement);
+        }
+    }
+
+    private static Order newOrder() {
+        Order order = OrderMapper.toOrder(new OrderRequest());
+        order.setCustomerID("routing-customer");
+        order.setCustomerEmail("routing@example.com");
+        order.setStoreID("store");
+        order.setTotalItemCost(BigDecimal.TEN);
+        order.setTotalCost(BigDecimal.TEN);
+        order.setStatus(EStatus.SUBMITTED);
+        return order;
+    }
+}
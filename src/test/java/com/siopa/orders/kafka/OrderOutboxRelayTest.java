@@ -0,0 +1,130 @@
+package com.siopa.orders.kafka;
+
+import com.siopa.orders.models.OrderOutbox;
+import com.siopa.orders.repositories.OrderOutboxRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for {@link OrderOutboxRelay} against a stand-in producer.
+ */
+class OrderOutboxRelayTest {
+
+    private OrderOutboxRepository outboxRepository;
+    private OrderProducer orderProducer;
+    private OrderOutboxRelay relay;
+
+    @BeforeEach
+    void setUp() {
+        outboxRepository = mock(OrderOutboxRepository.class);
+        orderProducer = mock(OrderProducer.class);
+        relay = relay(false);
+    }
+
+    private OrderOutboxRelay relay(boolean coalesce) {
+        return new OrderOutboxRelay(outboxRepository, orderProducer,
+                new InventoryCoalescer(coalesce, new SimpleMeterRegistry()),
+                mock(PlatformTransactionManager.class), 2, 100, 0);
+    }
+
+    @Test
+    void marksAcknowledgedEntriesAsSent() {
+        when(outboxRepository.lockNextUnsent(anyInt())).thenReturn(List.of(entry(1L, "p1", 2), entry(2L, "p2", 1)));
+        when(orderProducer.sendBatch(any())).thenReturn(CompletableFuture.completedFuture(List.of(
+                acknowledged("p1", 2), acknowledged("p2", 1))));
+
+        assertEquals(2, relay.relayBatch());
+
+        verify(orderProducer).sendBatch(List.of(new ProductOrderMessage("p1", 2), new ProductOrderMessage("p2", 1)));
+        verify(outboxRepository).markSent(eq(List.of(1L, 2L)), any());
+    }
+
+    @Test
+    void leavesFailedEntriesPending() {
+        when(outboxRepository.lockNextUnsent(anyInt())).thenReturn(List.of(entry(1L, "p1", 2), entry(2L, "p2", 1)));
+        when(orderProducer.sendBatch(any())).thenReturn(CompletableFuture.completedFuture(List.of(
+                acknowledged("p1", 2),
+                new RecordSendResult(new ProductOrderMessage("p2", 1), -1, -1L, 0L,
+                        new IllegalStateException("broker unavailable")))));
+
+        assertEquals(0, relay.relayBatch());
+
+        verify(outboxRepository).markSent(eq(List.of(1L)), any());
+    }
+
+    @Test
+    void leavesBatchPendingWhenAcknowledgementsTimeOut() {
+        when(outboxRepository.lockNextUnsent(anyInt())).thenReturn(List.of(entry(1L, "p1", 2)));
+        when(orderProducer.sendBatch(any())).thenReturn(new CompletableFuture<>());
+
+        assertEquals(0, relay.relayBatch());
+
+        verify(outboxRepository, never()).markSent(any(), any());
+    }
+
+    @Test
+    void coalescesQuantitiesPerProductAcrossStores() {
+        when(outboxRepository.lockNextUnsent(anyInt())).thenReturn(List.of(
+                entry(1L, "store-1", "p1", 2), entry(2L, "store-1", "p2", 1), entry(3L, "store-2", "p1", 3)));
+        when(orderProducer.sendBatch(any())).thenReturn(CompletableFuture.completedFuture(List.of(
+                acknowledged("p1", 5), acknowledged("p2", 1))));
+
+        relay(true).relayBatch();
+
+        verify(orderProducer).sendBatch(List.of(new ProductOrderMessage("p1", 5), new ProductOrderMessage("p2", 1)));
+        verify(outboxRepository).markSent(eq(List.of(1L, 3L, 2L)), any());
+    }
+
+    @Test
+    void startsANewMessageWhenTheCoalescedQuantityWouldOverflow() {
+        List<OrderOutbox> entries = List.of(
+                entry(1L, "p1", Integer.MAX_VALUE - 1), entry(2L, "p1", 2), entry(3L, "p1", 3));
+
+        List<InventoryCoalescer.CoalescedMessage> messages =
+                new InventoryCoalescer(true, new SimpleMeterRegistry()).coalesce(entries);
+
+        assertEquals(List.of(new ProductOrderMessage("p1", Integer.MAX_VALUE - 1), new ProductOrderMessage("p1", 5)),
+                messages.stream().map(InventoryCoalescer.CoalescedMessage::getMessage).toList());
+        assertEquals(List.of(List.of(1L), List.of(2L, 3L)),
+                messages.stream().map(InventoryCoalescer.CoalescedMessage::getOutboxIds).toList());
+    }
+
+    @Test
+    void doesNothingWhenOutboxIsEmpty() {
+        when(outboxRepository.lockNextUnsent(anyInt())).thenReturn(List.of());
+
+        assertEquals(0, relay.relayBatch());
+
+        verifyNoInteractions(orderProducer);
+        verify(outboxRepository, never()).markSent(any(), any());
+    }
+
+    private static RecordSendResult acknowledged(String productId, int quantity) {
+        return new RecordSendResult(new ProductOrderMessage(productId, quantity), 0, 0L, 0L, null);
+    }
+
+    private static OrderOutbox entry(Long id, String productId, int quantity) {
+        return entry(id, "store", productId, quantity);
+    }
+
+    private static OrderOutbox entry(Long id, String storeId, String productId, int quantity) {
+        return OrderOutbox.builder()
+                .id(id)
+                .orderId("order-" + id)
+                .storeID(storeId)
+                .productId(productId)
+                .quantity(quantity)
+                .build();
+    }
+}
@@ -0,0 +1,150 @@
+package com.siopa.orders.kafka;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.clients.producer.RecordMetadata;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for {@link OrderProducer} and its serializers against a stand-in Kafka template.
+ */
+class OrderProducerTest {
+
+    private KafkaTemplate<String, byte[]> kafkaTemplate;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        kafkaTemplate = mock(KafkaTemplate.class);
+        when(kafkaTemplate.partitionsFor("orders")).thenReturn(IntStream.range(0, 3)
+                .mapToObj(partition -> new PartitionInfo("orders", partition, null, null, null))
+                .toList());
+        when(kafkaTemplate.send(any(ProducerRecord.class))).thenAnswer(invocation -> {
+            ProducerRecord<String, byte[]> record = invocation.getArgument(0);
+            int partition = record.partition() != null ? record.partition() : 0;
+            RecordMetadata metadata = new RecordMetadata(new TopicPartition("orders", partition), 7, 0, 0L, 0, 0);
+            return CompletableFuture.completedFuture(new SendResult<>(record, metadata));
+        });
+    }
+
+    private OrderProducer producer(ProductOrderSerializer serializer) {
+        OrderProducer producer = new OrderProducer(kafkaTemplate, serializer, 100, meterRegistry);
+        ReflectionTestUtils.setField(producer, "orderTopic", "orders");
+        return producer;
+    }
+
+    @Test
+    void jsonSendsOneKeyedRecordPerMessage() {
+        List<ProductOrderMessage> messages = List.of(new ProductOrderMessage("p1", 2), new ProductOrderMessage("p2", 1));
+
+        List<RecordSendResult> results = producer(new JsonProductOrderSerializer(new ObjectMapper()))
+                .sendBatch(messages).join();
+
+        ArgumentCaptor<ProducerRecord<String, byte[]>> records = recordCaptor();
+        verify(kafkaTemplate, times(2)).send(records.capture());
+        assertEquals("p1", records.getAllValues().get(0).key());
+        assertEquals("{\"productId\":\"p1\",\"quantity\":2}",
+                new String(records.getAllValues().get(0).value(), StandardCharsets.UTF_8));
+        assertEquals(2, results.size());
+        assertTrue(results.stream().allMatch(RecordSendResult::isSuccess));
+    }
+
+    @Test
+    void binaryGroupsMessagesIntoOneRecordPerPartition() {
+        List<ProductOrderMessage> messages = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            messages.add(new ProductOrderMessage(UUID.randomUUID().toString(), i));
+        }
+
+        List<RecordSendResult> results = producer(new BinaryProductOrderSerializer(500)).sendBatch(messages).join();
+
+        ArgumentCaptor<ProducerRecord<String, byte[]>> records = recordCaptor();
+        verify(kafkaTemplate, times(3)).send(records.capture());
+        List<ProductOrderMessage> decoded = new ArrayList<>();
+        for (ProducerRecord<String, byte[]> record : records.getAllValues()) {
+            List<ProductOrderMessage> batch = BinaryProductOrderSerializer.deserialize(record.value());
+            for (ProductOrderMessage message : batch) {
+                assertEquals(messagePartition(results, message), record.partition());
+            }
+            decoded.addAll(batch);
+        }
+        assertEquals(50, decoded.size());
+        assertTrue(decoded.containsAll(messages));
+        assertEquals(messages, results.stream().map(RecordSendResult::getMessage).toList());
+    }
+
+    @Test
+    void binaryFailsTheBatchWhenPartitionsAreUnknown() {
+        when(kafkaTemplate.partitionsFor("orders")).thenThrow(new IllegalStateException("metadata unavailable"));
+        List<ProductOrderMessage> messages = List.of(new ProductOrderMessage("p1", 2), new ProductOrderMessage("p2", 1));
+
+        List<RecordSendResult> results = producer(new BinaryProductOrderSerializer(500)).sendBatch(messages).join();
+
+        verify(kafkaTemplate, never()).send(any(ProducerRecord.class));
+        assertEquals(messages, results.stream().map(RecordSendResult::getMessage).toList());
+        assertTrue(results.stream().noneMatch(RecordSendResult::isSuccess));
+    }
+
+    @Test
+    void acknowledgementsSizesAndFailuresAreMetered() {
+        OrderProducer producer = producer(new JsonProductOrderSerializer(new ObjectMapper()));
+        producer.sendBatch(List.of(new ProductOrderMessage("p1", 2), new ProductOrderMessage("p2", 1))).join();
+        when(kafkaTemplate.send(any(ProducerRecord.class)))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("broker unavailable")));
+        producer.sendBatch(List.of(new ProductOrderMessage("p3", 1))).join();
+
+        assertEquals(2, meterRegistry.get("orders.kafka.send").timer().count());
+        DistributionSummary recordBytes = meterRegistry.get("orders.kafka.record.bytes")
+                .tag("content.type", "application/json").summary();
+        assertEquals(3, recordBytes.count());
+        assertEquals("{\"productId\":\"p1\",\"quantity\":2}".length(), recordBytes.max(), 0);
+        assertEquals(1, meterRegistry.get("orders.kafka.send.failures")
+                .tag("exception", "IllegalStateException").counter().count());
+    }
+
+    @Test
+    void binaryRoundTripsNonUuidIdsAndNegativeQuantities() {
+        List<ProductOrderMessage> messages = List.of(
+                new ProductOrderMessage("0192f1c3-4b7a-7d2e-9a51-3c0e8f6b2d14", 3),
+                new ProductOrderMessage("0192F1C3-4B7A-7D2E-9A51-3C0E8F6B2D14", 1),
+                new ProductOrderMessage("sku-ä-42", -5),
+                new ProductOrderMessage("", Integer.MAX_VALUE));
+
+        byte[] value = new BinaryProductOrderSerializer(500).serialize(messages);
+
+        assertEquals(messages, BinaryProductOrderSerializer.deserialize(value));
+    }
+
+    private static int messagePartition(List<RecordSendResult> results, ProductOrderMessage message) {
+        return results.stream().filter(result -> result.getMessage().equals(message)).findFirst().orElseThrow()
+                .getPartition();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ArgumentCaptor<ProducerRecord<String, byte[]>> recordCaptor() {
+        return ArgumentCaptor.forClass(ProducerRecord.class);
+    }
+}
@@ -0,0 +1,80 @@
+package com.siopa.orders.kafka;
+
+import com.siopa.orders.dto.OrderStatusChange;
+import com.siopa.orders.models.EStatus;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for how {@link OrderStatusConsumer} collapses a batch of status changes.
+ */
+class OrderStatusConsumerTest {
+
+    @Test
+    void repeatedStatusesOfAnOrderAreAppliedOnce() {
+        Map<String, List<EStatus>> changes = OrderStatusConsumer.collapse(records(
+                change("o1", EStatus.PREPARING),
+                change("o1", EStatus.PREPARING),
+                change("o1", EStatus.OUT_FOR_DELIVERY),
+                change("o1", EStatus.OUT_FOR_DELIVERY)));
+
+        assertEquals(Map.of("o1", List.of(EStatus.PREPARING, EStatus.OUT_FOR_DELIVERY)), changes);
+    }
+
+    @Test
+    void interleavedOrdersKeepTheirOwnOrderOfStatuses() {
+        Map<String, List<EStatus>> changes = OrderStatusConsumer.collapse(records(
+                change("o1", EStatus.PREPARING),
+                change("o2", EStatus.CANCELLED),
+                change("o1", EStatus.READY_FOR_COLLECTION),
+                change("o2", EStatus.CANCELLED),
+                change("o1", EStatus.COLLECTED)));
+
+        assertEquals(List.of("o1", "o2"), new ArrayList<>(changes.keySet()));
+        assertEquals(List.of(EStatus.PREPARING, EStatus.READY_FOR_COLLECTION, EStatus.COLLECTED), changes.get("o1"));
+        assertEquals(List.of(EStatus.CANCELLED), changes.get("o2"));
+    }
+
+    @Test
+    void aStatusRepeatedAfterAnotherOneIsKept() {
+        Map<String, List<EStatus>> changes = OrderStatusConsumer.collapse(records(
+                change("o1", EStatus.PREPARING),
+                change("o1", EStatus.CANCELLED),
+                change("o1", EStatus.PREPARING)));
+
+        assertEquals(List.of(EStatus.PREPARING, EStatus.CANCELLED, EStatus.PREPARING), changes.get("o1"));
+    }
+
+    @Test
+    void malformedRecordsAreSkipped() {
+        Map<String, List<EStatus>> changes = OrderStatusConsumer.collapse(records(
+                null,
+                change(null, EStatus.PREPARING),
+                change("o1", null),
+                change("o2", EStatus.PREPARING)));
+
+        assertEquals(Map.of("o2", List.of(EStatus.PREPARING)), changes);
+        assertTrue(OrderStatusConsumer.collapse(records((OrderStatusChange) null)).isEmpty());
+    }
+
+    private static List<ConsumerRecord<String, OrderStatusChange>> records(OrderStatusChange... changes) {
+        List<ConsumerRecord<String, OrderStatusChange>> records = new ArrayList<>();
+        for (OrderStatusChange change : Arrays.asList(changes)) {
+            records.add(new ConsumerRecord<>("order-status", 0, records.size(),
+                    change != null ? change.getOrderId() : null, change));
+        }
+        return records;
+    }
+
+    private static OrderStatusChange change(String orderId, EStatus status) {
+        return new OrderStatusChange(orderId, status);
+    }
+}
@@ -0,0 +1,61 @@
+package com.siopa.orders.loadtest;
+
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.clients.producer.RecordMetadata;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.IntStream;
+
+/**
+ * In-JVM stand-in for a Kafka cluster: every send is acknowledged immediately with the next
+ * offset of the record's partition, or of a partition chosen from the record key when it has
+ * none. Nothing is stored; only per-partition offsets are kept so the number of records sent
+ * can be reported.
+ */
+public class InMemoryKafkaTemplate extends KafkaTemplate<String, byte[]> {
+
+    private final AtomicLongArray offsets;
+
+    public InMemoryKafkaTemplate(int partitions) {
+        super(new DefaultKafkaProducerFactory<>(Map.of()));
+        this.offsets = new AtomicLongArray(partitions);
+    }
+
+    @Override
+    public List<PartitionInfo> partitionsFor(String topic) {
+        return IntStream.range(0, offsets.length())
+                .mapToObj(partition -> new PartitionInfo(topic, partition, null, null, null))
+                .toList();
+    }
+
+    @Override
+    public CompletableFuture<SendResult<String, byte[]>> send(ProducerRecord<String, byte[]> record) {
+        int partition = record.partition() != null ? record.partition()
+                : record.key() == null ? 0 : Math.floorMod(record.key().hashCode(), offsets.length());
+        long offset = offsets.getAndIncrement(partition);
+        RecordMetadata metadata = new RecordMetadata(new TopicPartition(record.topic(), partition), offset, 0,
+                System.currentTimeMillis(), record.key() == null ? -1 : record.key().length(), record.value().length);
+        return CompletableFuture.completedFuture(new SendResult<>(record, metadata));
+    }
+
+    /**
+     * Returns the number of records acknowledged across all partitions.
+     *
+     * @return the number of records sent
+     */
+    public long sentCount() {
+        long total = 0;
+        for (int i = 0; i < offsets.length(); i++) {
+            total += offsets.get(i);
+        }
+        return total;
+    }
+}
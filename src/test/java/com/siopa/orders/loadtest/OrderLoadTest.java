@@ -0,0 +1,290 @@
+package com.siopa.orders.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.siopa.orders.dto.OrderItemRequest;
+import com.siopa.orders.dto.OrderRequest;
+import com.siopa.orders.models.EStatus;
+import com.siopa.orders.models.Order;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+import org.springframework.kafka.core.KafkaTemplate;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * End-to-end load test of {@code OrderController}: boots the application on a random port against
+ * the embedded H2 database and an {@link InMemoryKafkaTemplate}, drives a mix of create, get-by-id,
+ * list-by-status and status PATCH requests over HTTP, and reports p50/p99/p99.9 latency and
+ * throughput per endpoint. The test fails if any endpoint exceeds its latency budget or returns an
+ * unexpected status.
+ * <p>
+ * It only runs when asked for, since it takes the configured duration:
+ * <pre>
+ * mvn test -Dtest=OrderLoadTest -Dloadtest.enabled=true \
+ *     -Dloadtest.concurrency=16 -Dloadtest.warmup-seconds=10 -Dloadtest.duration-seconds=30 \
+ *     -Dloadtest.budget.p99-ms=250 -Dloadtest.budget.p999-ms=1000
+ * </pre>
+ * Each worker sends its next request as soon as the previous one completes, so latencies are
+ * measured under a closed loop and do not include queueing a fixed-rate client would see.
+ */
+@EnabledIfSystemProperty(named = "loadtest.enabled", matches = "true")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"logging.level.com.siopa.orders=WARN", "spring.jpa.properties.hibernate.generate_statistics=false"})
+class OrderLoadTest {
+
+    private static final int CONCURRENCY = Integer.getInteger("loadtest.concurrency", 16);
+    private static final int WARMUP_SECONDS = Integer.getInteger("loadtest.warmup-seconds", 10);
+    private static final int DURATION_SECONDS = Integer.getInteger("loadtest.duration-seconds", 30);
+    private static final long BUDGET_P99_MS = Long.getLong("loadtest.budget.p99-ms", 250);
+    private static final long BUDGET_P999_MS = Long.getLong("loadtest.budget.p999-ms", 1000);
+    private static final int ITEMS_PER_ORDER = Integer.getInteger("loadtest.items-per-order", 5);
+
+    /**
+     * Number of recently created order IDs kept for get-by-id requests.
+     */
+    private static final int RECENT_ORDERS = 10_000;
+
+    /**
+     * The endpoints exercised, with their share of the traffic in percent.
+     */
+    enum Endpoint {
+        CREATE(20), GET_BY_ID(50), LIST_BY_STATUS(10), PATCH_STATUS(20);
+
+        private final int weight;
+
+        Endpoint(int weight) {
+            this.weight = weight;
+        }
+    }
+
+    @TestConfiguration
+    static class KafkaStandIn {
+
+        @Bean
+        @Primary
+        KafkaTemplate<String, byte[]> inMemoryKafkaTemplate() {
+            return new InMemoryKafkaTemplate(12);
+        }
+    }
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private KafkaTemplate<String, byte[]> kafkaTemplate;
+
+    private final HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+
+    private final AtomicReferenceArray<String> recentOrderIds = new AtomicReferenceArray<>(RECENT_ORDERS);
+
+    private final AtomicLong createdCount = new AtomicLong();
+
+    /**
+     * Orders available for a status change; each is taken by one worker at a time, so concurrent
+     * PATCHes never race on the same order.
+     */
+    private final ConcurrentLinkedQueue<Order> transitionable = new ConcurrentLinkedQueue<>();
+
+    private volatile Map<Endpoint, Stats> stats;
+
+    @Test
+    void mixedTrafficStaysWithinLatencyBudget() throws Exception {
+        run(WARMUP_SECONDS);
+        Map<Endpoint, Stats> measured = run(DURATION_SECONDS);
+
+        System.out.printf("%nLoad test: %d workers, %ds, %d records sent to Kafka stand-in%n", CONCURRENCY,
+                DURATION_SECONDS, ((InMemoryKafkaTemplate) kafkaTemplate).sentCount());
+        System.out.printf("%-16s %10s %10s %10s %10s %10s %8s%n",
+                "endpoint", "requests", "ops/s", "p50 ms", "p99 ms", "p99.9 ms", "errors");
+        List<String> violations = new ArrayList<>();
+        for (Map.Entry<Endpoint, Stats> entry : measured.entrySet()) {
+            Histogram histogram = entry.getValue().latencies;
+            double p50 = millis(histogram.getValueAtPercentile(50));
+            double p99 = millis(histogram.getValueAtPercentile(99));
+            double p999 = millis(histogram.getValueAtPercentile(99.9));
+            long errors = entry.getValue().errors.get();
+            System.out.printf("%-16s %10d %10.1f %10.2f %10.2f %10.2f %8d%n", entry.getKey(),
+                    histogram.getTotalCount(), (double) histogram.getTotalCount() / DURATION_SECONDS,
+                    p50, p99, p999, errors);
+            if (p99 > BUDGET_P99_MS) {
+                violations.add(entry.getKey() + " p99 " + p99 + "ms > " + BUDGET_P99_MS + "ms");
+            }
+            if (p999 > BUDGET_P999_MS) {
+                violations.add(entry.getKey() + " p99.9 " + p999 + "ms > " + BUDGET_P999_MS + "ms");
+            }
+            if (errors > 0) {
+                violations.add(entry.getKey() + " returned " + errors + " unexpected responses");
+            }
+        }
+        assertTrue(violations.isEmpty(), String.join("; ", violations));
+    }
+
+    private Map<Endpoint, Stats> run(int seconds) throws Exception {
+        Map<Endpoint, Stats> runStats = new EnumMap<>(Endpoint.class);
+        for (Endpoint endpoint : Endpoint.values()) {
+            runStats.put(endpoint, new Stats());
+        }
+        stats = runStats;
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        ExecutorService workers = Executors.newFixedThreadPool(CONCURRENCY);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < CONCURRENCY; i++) {
+                futures.add(workers.submit(() -> {
+                    while (System.nanoTime() < deadline) {
+                        execute(pick());
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            workers.shutdownNow();
+        }
+        return runStats;
+    }
+
+    private Endpoint pick() {
+        if (createdCount.get() == 0) {
+            return Endpoint.CREATE;
+        }
+        int roll = ThreadLocalRandom.current().nextInt(100);
+        for (Endpoint endpoint : Endpoint.values()) {
+            roll -= endpoint.weight;
+            if (roll < 0) {
+                return endpoint;
+            }
+        }
+        return Endpoint.CREATE;
+    }
+
+    private void execute(Endpoint endpoint) throws IOException, InterruptedException {
+        Order transitioning = null;
+        EStatus nextStatus = null;
+        HttpRequest request;
+        switch (endpoint) {
+            case CREATE -> request = HttpRequest.newBuilder(uri("/api/orders"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(newOrder())))
+                    .build();
+            case GET_BY_ID -> request = HttpRequest.newBuilder(uri("/api/orders/" + randomOrderId())).GET().build();
+            case LIST_BY_STATUS -> request = HttpRequest.newBuilder(uri("/api/orders/status/PREPARING")).GET().build();
+            case PATCH_STATUS -> {
+                transitioning = transitionable.poll();
+                if (transitioning == null) {
+                    return;
+                }
+                nextStatus = transitioning.getStatus().nextStatuses().stream()
+                        .filter(status -> status != EStatus.CANCELLED)
+                        .findFirst()
+                        .orElseThrow();
+                request = HttpRequest.newBuilder(uri("/api/orders/" + transitioning.getOrderId()
+                                + "/status?status=" + nextStatus))
+                        .method("PATCH", HttpRequest.BodyPublishers.noBody())
+                        .build();
+            }
+            default -> throw new IllegalStateException("Unknown endpoint " + endpoint);
+        }
+
+        long start = System.nanoTime();
+        HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        long latency = System.nanoTime() - start;
+        Stats endpointStats = stats.get(endpoint);
+        endpointStats.latencies.recordValue(Math.min(latency, endpointStats.latencies.getHighestTrackableValue()));
+        if (response.statusCode() / 100 != 2) {
+            endpointStats.errors.incrementAndGet();
+            return;
+        }
+
+        if (endpoint == Endpoint.CREATE) {
+            Order created = objectMapper.readValue(response.body(), Order.class);
+            recentOrderIds.set((int) (createdCount.getAndIncrement() % RECENT_ORDERS), created.getOrderId());
+            transitionable.add(created);
+        } else if (endpoint == Endpoint.PATCH_STATUS) {
+            transitioning.setStatus(nextStatus);
+            if (!nextStatus.nextStatuses().isEmpty()) {
+                transitionable.add(transitioning);
+            }
+        }
+    }
+
+    private String randomOrderId() {
+        int bound = (int) Math.min(createdCount.get(), RECENT_ORDERS);
+        String orderId = recentOrderIds.get(ThreadLocalRandom.current().nextInt(bound));
+        return orderId != null ? orderId : recentOrderIds.get(0);
+    }
+
+    private static OrderRequest newOrder() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        OrderRequest request = new OrderRequest();
+        request.setCustomerID("customer-" + random.nextInt(10_000));
+        request.setCustomerEmail("customer@example.com");
+        request.setStoreID("store-" + random.nextInt(50));
+        request.setDelivery(random.nextBoolean());
+        request.setCollection(!request.isDelivery());
+        List<OrderItemRequest> items = new ArrayList<>(ITEMS_PER_ORDER);
+        for (int i = 0; i < ITEMS_PER_ORDER; i++) {
+            OrderItemRequest item = new OrderItemRequest();
+            item.setProductId("product-" + random.nextInt(1_000));
+            item.setProductName("Product");
+            item.setQuantity(1 + random.nextInt(3));
+            item.setPrice(BigDecimal.ONE);
+            items.add(item);
+        }
+        request.setOrderItems(items);
+        request.setTotalItemCost(BigDecimal.valueOf(ITEMS_PER_ORDER));
+        request.setTotalCost(BigDecimal.valueOf(ITEMS_PER_ORDER));
+        return request;
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    /**
+     * Latency histogram and unexpected-response count of one endpoint.
+     */
+    private static final class Stats {
+
+        private final Histogram latencies = new ConcurrentHistogram(TimeUnit.MINUTES.toNanos(1), 3);
+
+        private final AtomicLong errors = new AtomicLong();
+    }
+}
@@ -0,0 +1,66 @@
+package com.siopa.orders.repositories;
+
+import com.siopa.orders.dto.RollupBucket;
+import com.siopa.orders.models.ERollupGranularity;
+import com.siopa.orders.models.OrderRollup;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Tests for the range queries of {@link OrderRollupRepository} behind the stats endpoint.
+ */
+@DataJpaTest
+class OrderRollupRepositoryTest {
+
+    private static final Date MORNING = Date.from(Instant.parse("2025-03-01T09:00:00Z"));
+    private static final Date AFTERNOON = Date.from(Instant.parse("2025-03-01T14:00:00Z"));
+    private static final Date FROM = Date.from(Instant.parse("2025-03-01T00:00:00Z"));
+    private static final Date TO = Date.from(Instant.parse("2025-03-02T00:00:00Z"));
+
+    @Autowired
+    private OrderRollupRepository rollupRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Test
+    void bucketsAreReadPerStoreOrSummedAcrossStores() {
+        entityManager.persist(rollup("store-1", MORNING, 1, "20.00"));
+        entityManager.persist(rollup("store-1", AFTERNOON, 1, "10.00"));
+        entityManager.persist(rollup("store-2", AFTERNOON, 2, "5.00"));
+        entityManager.persist(rollup("store-1", Date.from(Instant.parse("2025-03-02T09:00:00Z")), 1, "1.00"));
+        entityManager.flush();
+
+        List<RollupBucket> store = rollupRepository.findBuckets("store-1", ERollupGranularity.HOUR, FROM, TO);
+        assertEquals(List.of(MORNING, AFTERNOON), store.stream().map(RollupBucket::getBucketStart).toList());
+        assertEquals(0, new BigDecimal("20.00").compareTo(store.get(0).getTotalCost()));
+
+        List<RollupBucket> totals = rollupRepository.findTotals(ERollupGranularity.HOUR, FROM, TO);
+        assertEquals(2, totals.size());
+        assertEquals(3, totals.get(1).getOrderCount());
+        assertEquals(0, new BigDecimal("15.00").compareTo(totals.get(1).getTotalCost()));
+    }
+
+    private static OrderRollup rollup(String storeId, Date bucketStart, long orders, String totalCost) {
+        return OrderRollup.builder()
+                .storeID(storeId)
+                .granularity(ERollupGranularity.HOUR)
+                .bucketStart(bucketStart)
+                .orderCount(orders)
+                .itemCount(orders)
+                .totalCost(new BigDecimal(totalCost))
+                .deliveryFees(BigDecimal.ZERO)
+                .cancelledTotalCost(BigDecimal.ZERO)
+                .completedTotalCost(BigDecimal.ZERO)
+                .build();
+    }
+}
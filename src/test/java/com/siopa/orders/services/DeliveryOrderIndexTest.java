@@ -0,0 +1,135 @@
+package com.siopa.orders.services;
+
+import com.siopa.orders.dto.NearbyOrder;
+import com.siopa.orders.events.OrderEvent;
+import com.siopa.orders.models.EStatus;
+import com.siopa.orders.models.Order;
+import com.siopa.orders.repositories.OrderRepository;
+import com.siopa.orders.repositories.OrderRepository.DeliveryLocation;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests for {@link DeliveryOrderIndex}, checked against a brute-force scan of the same orders.
+ */
+class DeliveryOrderIndexTest {
+
+    private final DeliveryOrderIndex index = new DeliveryOrderIndex(mock(OrderRepository.class), 0.01);
+
+    @Test
+    void radiusAndNearestQueriesMatchBruteForce() {
+        Random random = new Random(42);
+        List<Order> orders = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            Order order = delivery("order-" + i, 53.35 + random.nextGaussian() * 0.05, -6.26 + random.nextGaussian() * 0.08);
+            EStatus status = i % 3 == 0 ? EStatus.SUBMITTED : EStatus.PREPARING;
+            index.onOrderEvent(OrderEvent.created(order));
+            if (status == EStatus.PREPARING) {
+                index.onOrderEvent(OrderEvent.statusChanged(order, EStatus.SUBMITTED, EStatus.PREPARING));
+            }
+            order.setStatus(status);
+            orders.add(order);
+        }
+
+        for (int query = 0; query < 50; query++) {
+            double lat = 53.35 + random.nextGaussian() * 0.05;
+            double lng = -6.26 + random.nextGaussian() * 0.08;
+
+            List<String> expectedWithin = bruteForce(orders, lat, lng, EStatus.PREPARING).stream()
+                    .filter(order -> DeliveryOrderIndex.distanceKm(lat, lng, order.getCustomerLat(), order.getCustomerLng()) <= 2)
+                    .map(Order::getOrderId)
+                    .toList();
+            assertEquals(expectedWithin, ids(index.within("store-1", lat, lng, 2, Set.of(EStatus.PREPARING))));
+
+            List<String> expectedNearest = bruteForce(orders, lat, lng, EStatus.PREPARING).stream()
+                    .limit(10)
+                    .map(Order::getOrderId)
+                    .toList();
+            assertEquals(expectedNearest, ids(index.nearest("store-1", lat, lng, 10, Set.of(EStatus.PREPARING))));
+        }
+    }
+
+    @Test
+    void ordersLeaveTheIndexWhenNoLongerActive() {
+        Order delivered = delivery("delivered", 53.35, -6.26);
+        Order deleted = delivery("deleted", 53.351, -6.261);
+        Order collection = delivery("collection", 53.352, -6.262);
+        collection.setDelivery(false);
+        Order unlocated = delivery("unlocated", 0, 0);
+        for (Order order : List.of(delivered, deleted, collection, unlocated)) {
+            index.onOrderEvent(OrderEvent.created(order));
+        }
+        assertEquals(List.of("delivered", "deleted"),
+                ids(index.within("store-1", 53.35, -6.26, 1, DeliveryOrderIndex.ACTIVE_STATUSES)));
+
+        index.onOrderEvent(OrderEvent.statusChanged(delivered, EStatus.OUT_FOR_DELIVERY, EStatus.DELIVERED));
+        index.onOrderEvent(OrderEvent.deleted(deleted));
+
+        assertTrue(index.nearest("store-1", 53.35, -6.26, 5, DeliveryOrderIndex.ACTIVE_STATUSES).isEmpty());
+        assertTrue(index.nearest("store-2", 53.35, -6.26, 5, DeliveryOrderIndex.ACTIVE_STATUSES).isEmpty());
+    }
+
+    @Test
+    void changesDuringARebuildAreReplayedOnTheRebuiltIndex() {
+        OrderRepository orderRepository = mock(OrderRepository.class);
+        DeliveryOrderIndex rebuilding = new DeliveryOrderIndex(orderRepository, 0.01);
+        Order stale = delivery("stale", 53.35, -6.26);
+        Order created = delivery("created", 53.351, -6.261);
+        rebuilding.onOrderEvent(OrderEvent.created(stale));
+        DeliveryLocation staleRow = location(stale);
+        when(orderRepository.findDeliveryLocations(DeliveryOrderIndex.ACTIVE_STATUSES)).thenAnswer(invocation -> {
+            // both commit after the query read its snapshot
+            rebuilding.onOrderEvent(OrderEvent.statusChanged(stale, EStatus.OUT_FOR_DELIVERY, EStatus.DELIVERED));
+            rebuilding.onOrderEvent(OrderEvent.created(created));
+            return List.of(staleRow);
+        });
+
+        rebuilding.rebuild();
+
+        assertEquals(List.of("created"),
+                ids(rebuilding.within("store-1", 53.35, -6.26, 1, DeliveryOrderIndex.ACTIVE_STATUSES)));
+    }
+
+    private static DeliveryLocation location(Order order) {
+        DeliveryLocation location = mock(DeliveryLocation.class);
+        when(location.getOrderId()).thenReturn(order.getOrderId());
+        when(location.getStoreID()).thenReturn(order.getStoreID());
+        when(location.getStatus()).thenReturn(order.getStatus());
+        when(location.getCustomerLat()).thenReturn(order.getCustomerLat());
+        when(location.getCustomerLng()).thenReturn(order.getCustomerLng());
+        return location;
+    }
+
+    private static Order delivery(String orderId, double lat, double lng) {
+        return Order.builder()
+                .orderId(orderId)
+                .storeID("store-1")
+                .isDelivery(true)
+                .status(EStatus.SUBMITTED)
+                .customerLat(lat)
+                .customerLng(lng)
+                .build();
+    }
+
+    private static List<Order> bruteForce(List<Order> orders, double lat, double lng, EStatus status) {
+        return orders.stream()
+                .filter(order -> order.getStatus() == status)
+                .sorted(Comparator.comparingDouble(order ->
+                        DeliveryOrderIndex.distanceKm(lat, lng, order.getCustomerLat(), order.getCustomerLng())))
+                .toList();
+    }
+
+    private static List<String> ids(List<NearbyOrder> orders) {
+        return orders.stream().map(NearbyOrder::getOrderId).toList();
+    }
+}
@@ -0,0 +1,116 @@
+package com.siopa.orders.services;
+
+import com.siopa.orders.events.OrderEvent;
+import com.siopa.orders.models.EStatus;
+import com.siopa.orders.models.Order;
+import com.siopa.orders.repositories.OrderArchiveRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for {@link OrderArchiver} against a stand-in archive repository.
+ */
+class OrderArchiverTest {
+
+    private OrderArchiveRepository archiveRepository;
+    private ApplicationEventPublisher eventPublisher;
+    private OrderArchiver archiver;
+
+    @BeforeEach
+    void setUp() {
+        archiveRepository = mock(OrderArchiveRepository.class);
+        eventPublisher = mock(ApplicationEventPublisher.class);
+        archiver = new OrderArchiver(archiveRepository, eventPublisher, mock(PlatformTransactionManager.class),
+                Duration.ofDays(30), 2, 10, 0, 10);
+    }
+
+    @AfterEach
+    void tearDown() {
+        archiver.stop();
+    }
+
+    @Test
+    void runsOnItsOwnThread() {
+        List<String> threads = new CopyOnWriteArrayList<>();
+        when(archiveRepository.lockArchivable(any(), any(), anyInt())).thenAnswer(invocation -> {
+            threads.add(Thread.currentThread().getName());
+            return List.of();
+        });
+
+        archiver.start();
+
+        verify(archiveRepository, timeout(5000).atLeast(2)).lockArchivable(any(), any(), anyInt());
+        assertTrue(threads.stream().allMatch(name -> name.startsWith("order-archiver-")));
+    }
+
+    @Test
+    void onlyArchivesOrdersThatCanNoLongerChange() {
+        assertEquals(Set.of(EStatus.COMPLETE, EStatus.CANCELLED), OrderArchiver.ARCHIVABLE_STATUSES);
+
+        archiver.archive();
+
+        verify(archiveRepository).lockArchivable(eq(OrderArchiver.ARCHIVABLE_STATUSES), any(), eq(2));
+        verify(archiveRepository, never()).moveToArchive(any());
+    }
+
+    @Test
+    void publishesADeletionForEveryArchivedOrder() {
+        Order complete = order("o1", EStatus.COMPLETE);
+        Order cancelled = order("o2", EStatus.CANCELLED);
+        when(archiveRepository.lockArchivable(any(), any(), anyInt()))
+                .thenReturn(List.of(complete, cancelled))
+                .thenReturn(List.of());
+        when(archiveRepository.moveToArchive(any())).thenReturn(2);
+
+        archiver.archive();
+
+        verify(archiveRepository).ensurePartition(YearMonth.from(
+                complete.getCrtdTimeStamp().toInstant().atZone(ZoneId.systemDefault())));
+        verify(archiveRepository).moveToArchive(List.of("o1", "o2"));
+        ArgumentCaptor<OrderEvent> events = ArgumentCaptor.forClass(OrderEvent.class);
+        verify(eventPublisher, times(2)).publishEvent(events.capture());
+        assertEquals(List.of("o1", "o2"), events.getAllValues().stream().map(e -> e.getOrder().getOrderId()).toList());
+        events.getAllValues().forEach(e -> assertEquals(OrderEvent.Type.DELETED, e.getType()));
+        assertEquals(EStatus.CANCELLED, events.getAllValues().get(1).getPreviousStatus());
+    }
+
+    @Test
+    void publishesNothingWhenTheMoveFails() {
+        when(archiveRepository.lockArchivable(any(), any(), anyInt())).thenReturn(List.of(order("o1", EStatus.COMPLETE)));
+        when(archiveRepository.moveToArchive(any())).thenThrow(new IllegalStateException("archive unavailable"));
+
+        assertThrows(IllegalStateException.class, archiver::archive);
+
+        verifyNoInteractions(eventPublisher);
+    }
+
+    private static Order order(String orderId, EStatus status) {
+        return Order.builder()
+                .orderId(orderId)
+                .customerID("c1")
+                .storeID("s1")
+                .status(status)
+                .crtdTimeStamp(new Date(System.currentTimeMillis() - Duration.ofDays(60).toMillis()))
+                .build();
+    }
+}
@@ -0,0 +1,90 @@
+package com.siopa.orders.services;
+
+import com.siopa.orders.dto.BatchOrderResult;
+import com.siopa.orders.dto.OrderItemRequest;
+import com.siopa.orders.dto.OrderRequest;
+import com.siopa.orders.models.Order;
+import com.siopa.orders.repositories.OrderArchiveRepository;
+import com.siopa.orders.repositories.OrderOutboxRepository;
+import com.siopa.orders.repositories.OrderRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DataAccessException;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for batch order creation by {@link OrderService#createOrders}.
+ */
+@DataJpaTest
+@Import({OrderService.class, OrderCache.class, OrderStatusCounters.class, CustomerHistoryCache.class,
+        OrderMetrics.class, OrderArchiveRepository.class, SimpleMeterRegistry.class})
+class OrderBatchCreateTest {
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderOutboxRepository orderOutboxRepository;
+
+    @Test
+    void invalidOrdersAreRejectedIndividuallyAndTheRestAreCreated() {
+        OrderRequest missingStore = request("customer-2");
+        missingStore.setStoreID(null);
+
+        List<BatchOrderResult> results = orderService.createOrders(List.of(
+                request("customer-1"), missingStore, request("customer-3")));
+
+        assertEquals(List.of(0, 1, 2), results.stream().map(BatchOrderResult::getIndex).toList());
+        assertTrue(results.get(0).isCreated());
+        assertFalse(results.get(1).isCreated());
+        assertNull(results.get(1).getOrderId());
+        assertEquals("customerID, customerEmail and storeID are required", results.get(1).getError());
+        assertTrue(results.get(2).isCreated());
+        Order created = orderRepository.findById(results.get(2).getOrderId()).orElseThrow();
+        assertEquals("customer-3", created.getCustomerID());
+        assertEquals(2, orderOutboxRepository.count());
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void oneDatabaseErrorRollsBackTheWholeBatch() {
+        long orders = orderRepository.count();
+        long outbox = orderOutboxRepository.count();
+        OrderRequest tooLong = request("customer-2");
+        tooLong.setDeliveryAddress("x".repeat(10_000));
+
+        assertThrows(DataAccessException.class, () -> orderService.createOrders(List.of(
+                request("customer-1"), tooLong, request("customer-3"))));
+
+        assertEquals(orders, orderRepository.count());
+        assertEquals(outbox, orderOutboxRepository.count());
+    }
+
+    private static OrderRequest request(String customerId) {
+        OrderRequest request = new OrderRequest();
+        request.setCustomerID(customerId);
+        request.setCustomerEmail(customerId + "@example.com");
+        request.setStoreID("store");
+        request.setTotalItemCost(BigDecimal.TEN);
+        request.setTotalCost(BigDecimal.TEN);
+        OrderItemRequest item = new OrderItemRequest();
+        item.setProductId("product");
+        item.setProductName("Product");
+        item.setQuantity(1);
+        item.setPrice(BigDecimal.TEN);
+        request.setOrderItems(List.of(item));
+        return request;
+    }
+}
@@ -0,0 +1,98 @@
+package com.siopa.orders.services;
+
+import com.siopa.orders.events.OrderEvent;
+import com.siopa.orders.models.EStatus;
+import com.siopa.orders.models.Order;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for invalidation of {@link OrderCache} by committed order changes, and for its hit and miss counts.
+ */
+class OrderCacheTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final OrderCache cache = new OrderCache(100, 60_000, meterRegistry);
+
+    @Test
+    void statusChangesAndDeletionsInvalidateTheCachedOrder() {
+        Order submitted = order(EStatus.SUBMITTED);
+        cache.get("o1", id -> submitted);
+
+        cache.onOrderEvent(OrderEvent.created(submitted));
+        assertSame(submitted, cache.peek("o1"));
+
+        cache.onOrderEvent(OrderEvent.statusChanged(order(EStatus.PREPARING), EStatus.SUBMITTED, EStatus.PREPARING));
+        assertNull(cache.peek("o1"));
+
+        cache.get("o1", id -> submitted);
+        cache.onOrderEvent(OrderEvent.deleted(submitted));
+        assertNull(cache.peek("o1"));
+    }
+
+    @Test
+    void aLoadThatReadTheOldRowIsDiscardedByTheInvalidationFollowingIt() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch readOldRow = new CountDownLatch(1);
+        CompletableFuture<Order> staleLoad = CompletableFuture.supplyAsync(() -> cache.get("o1", id -> {
+            loading.countDown();
+            await(readOldRow);
+            return order(EStatus.SUBMITTED);
+        }));
+        assertTrue(loading.await(5, TimeUnit.SECONDS));
+
+        Thread invalidation = new Thread(() -> cache.onOrderEvent(
+                OrderEvent.statusChanged(order(EStatus.PREPARING), EStatus.SUBMITTED, EStatus.PREPARING)));
+        invalidation.start();
+        // the invalidation waits for the load of the same key to finish
+        while (invalidation.getState() == Thread.State.RUNNABLE || invalidation.getState() == Thread.State.NEW) {
+            Thread.sleep(1);
+        }
+        readOldRow.countDown();
+        staleLoad.get(5, TimeUnit.SECONDS);
+        invalidation.join(5000);
+
+        assertNull(cache.peek("o1"));
+        assertEquals(EStatus.PREPARING, cache.get("o1", id -> order(EStatus.PREPARING)).getStatus());
+    }
+
+    @Test
+    void peekingRecordsNoHitsOrMisses() {
+        assertNull(cache.peek("o1"));
+        cache.get("o1", id -> order(EStatus.SUBMITTED));
+        assertEquals(EStatus.SUBMITTED, cache.peek("o1").getStatus());
+
+        assertEquals(1, gets("miss"));
+        assertEquals(0, gets("hit"));
+    }
+
+    private double gets(String result) {
+        return meterRegistry.get("cache.gets").tag("cache", "orders.byId").tag("result", result).functionCounter().count();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static Order order(EStatus status) {
+        return Order.builder()
+                .orderId("o1")
+                .storeID("store")
+                .customerID("customer")
+                .status(status)
+                .build();
+    }
+}
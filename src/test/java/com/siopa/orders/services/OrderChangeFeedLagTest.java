@@ -0,0 +1,48 @@
+package com.siopa.orders.services;
+
+import com.siopa.orders.dto.OrderRequest;
+import com.siopa.orders.models.EStatus;
+import com.siopa.orders.models.Order;
+import com.siopa.orders.repositories.OrderArchiveRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Tests that {@link OrderService#getOrderChanges} holds back changes younger than its safety lag.
+ */
+@DataJpaTest
+@Import({OrderService.class, OrderCache.class, OrderStatusCounters.class, CustomerHistoryCache.class,
+        OrderMetrics.class, OrderArchiveRepository.class, SimpleMeterRegistry.class})
+@TestPropertySource(properties = "orders.changes.safety-lag-ms=60000")
+class OrderChangeFeedLagTest {
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Test
+    void changesWithinTheSafetyLagAreNotReturnedYet() {
+        Order order = OrderMapper.toOrder(new OrderRequest());
+        order.setCustomerID("customer");
+        order.setCustomerEmail("customer@example.com");
+        order.setStoreID("store");
+        order.setTotalItemCost(BigDecimal.TEN);
+        order.setTotalCost(BigDecimal.TEN);
+        order.setStatus(EStatus.SUBMITTED);
+        entityManager.persistAndFlush(order);
+
+        assertEquals(List.of(), orderService.getOrderChanges(null, 10).getItems());
+    }
+}
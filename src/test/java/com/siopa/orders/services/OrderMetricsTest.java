@@ -0,0 +1,80 @@
+package com.siopa.orders.services;
+
+import com.siopa.orders.events.OrderEvent;
+import com.siopa.orders.models.EStatus;
+import com.siopa.orders.models.Order;
+import io.micrometer.core.instrument.observation.DefaultMeterObservationHandler;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Tests for the meters recorded by {@link OrderMetrics}.
+ */
+class OrderMetricsTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private OrderMetrics orderMetrics;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        ObservationRegistry observationRegistry = ObservationRegistry.create();
+        observationRegistry.observationConfig().observationHandler(new DefaultMeterObservationHandler(meterRegistry));
+        orderMetrics = new OrderMetrics(meterRegistry, new StaticListableBeanFactory(
+                Map.of("observationRegistry", observationRegistry)).getBeanProvider(ObservationRegistry.class));
+    }
+
+    @Test
+    void committedTransitionsAreCountedPerSourceAndTargetStatus() {
+        Order order = Order.builder().orderId("o1").storeID("store").status(EStatus.SUBMITTED).build();
+
+        orderMetrics.onOrderEvent(OrderEvent.created(order));
+        orderMetrics.onOrderEvent(OrderEvent.statusChanged(order, EStatus.SUBMITTED, EStatus.PREPARING));
+        orderMetrics.onOrderEvent(OrderEvent.statusChanged(order, EStatus.SUBMITTED, EStatus.PREPARING));
+
+        assertEquals(2, transitions(EStatus.SUBMITTED, EStatus.PREPARING));
+        assertEquals(0, transitions(EStatus.DELIVERED, EStatus.COMPLETE));
+        assertNull(meterRegistry.find("orders.status.transitions")
+                .tags("from", EStatus.COMPLETE.name(), "to", EStatus.SUBMITTED.name()).counter());
+    }
+
+    @Test
+    void createPhasesAndTheCommitAreTimed() {
+        assertEquals("saved", orderMetrics.observeCreatePhase("save", () -> "saved"));
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            orderMetrics.observeCommit();
+            for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+                synchronization.beforeCommit(false);
+                synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+            }
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertEquals(1, phaseTimer("save"));
+        assertEquals(1, phaseTimer("commit"));
+    }
+
+    private double transitions(EStatus from, EStatus to) {
+        return meterRegistry.get("orders.status.transitions").tags("from", from.name(), "to", to.name())
+                .counter().count();
+    }
+
+    private long phaseTimer(String phase) {
+        assertNotNull(meterRegistry.find(OrderMetrics.CREATE_PHASE).tag("phase", phase).timer());
+        return meterRegistry.get(OrderMetrics.CREATE_PHASE).tag("phase", phase).timer().count();
+    }
+}
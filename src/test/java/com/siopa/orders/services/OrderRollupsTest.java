@@ -0,0 +1,142 @@
+package com.siopa.orders.services;
+
+import com.siopa.orders.events.OrderEvent;
+import com.siopa.orders.models.ERollupGranularity;
+import com.siopa.orders.models.EStatus;
+import com.siopa.orders.models.Order;
+import com.siopa.orders.models.OrderItem;
+import com.siopa.orders.models.OrderRollup;
+import com.siopa.orders.models.OrderRollupDelta;
+import com.siopa.orders.repositories.OrderRollupDeltaRepository;
+import com.siopa.orders.repositories.OrderRollupRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for the incremental rollups maintained by {@link OrderRollups}, against stand-in repositories.
+ */
+class OrderRollupsTest {
+
+    private static final Instant MORNING = Instant.parse("2025-03-01T09:15:00Z");
+    private static final Instant AFTERNOON = Instant.parse("2025-03-01T14:40:00Z");
+
+    private OrderRollupRepository rollupRepository;
+    private OrderRollupDeltaRepository deltaRepository;
+    private OrderRollups orderRollups;
+
+    @BeforeEach
+    void setUp() {
+        rollupRepository = mock(OrderRollupRepository.class);
+        deltaRepository = mock(OrderRollupDeltaRepository.class);
+        orderRollups = new OrderRollups(rollupRepository, deltaRepository, mock(PlatformTransactionManager.class),
+                "UTC", 100);
+    }
+
+    @Test
+    void createdCancelledAndCompletedOrdersAreJournaledAsDeltas() {
+        Order order = order("store-1", MORNING, "20.00", "2.50", 3);
+
+        orderRollups.onOrderEvent(OrderEvent.created(order));
+        orderRollups.onOrderEvent(OrderEvent.statusChanged(order, EStatus.SUBMITTED, EStatus.PREPARING));
+        orderRollups.onOrderEvent(OrderEvent.statusChanged(order, EStatus.PREPARING, EStatus.CANCELLED));
+        orderRollups.onOrderEvent(OrderEvent.statusChanged(order, EStatus.DELIVERED, EStatus.COMPLETE));
+        orderRollups.onOrderEvent(OrderEvent.deleted(order));
+
+        ArgumentCaptor<OrderRollupDelta> deltas = ArgumentCaptor.forClass(OrderRollupDelta.class);
+        verify(deltaRepository, times(3)).save(deltas.capture());
+        OrderRollupDelta created = deltas.getAllValues().get(0);
+        assertEquals(Date.from(MORNING), created.getOrderCreated());
+        assertEquals(1, created.getOrderCount());
+        assertEquals(3, created.getItemCount());
+        assertEquals(0, new BigDecimal("2.50").compareTo(created.getDeliveryFees()));
+        assertEquals(1, deltas.getAllValues().get(1).getCancelledCount());
+        assertEquals(0, new BigDecimal("20.00").compareTo(deltas.getAllValues().get(1).getCancelledTotalCost()));
+        assertEquals(1, deltas.getAllValues().get(2).getCompletedCount());
+    }
+
+    @Test
+    void flushAddsDeltasToEachBucketOnceInOrderAndDeletesThem() {
+        when(deltaRepository.lockNext(anyInt())).thenReturn(List.of(
+                delta(1L, "store-2", AFTERNOON, 1, "5.00"),
+                delta(2L, "store-1", AFTERNOON, 1, "10.00"),
+                delta(3L, "store-1", MORNING, 1, "20.00"),
+                delta(4L, "store-1", MORNING, 1, "7.00")));
+
+        orderRollups.flush();
+
+        ArgumentCaptor<OrderRollup> buckets = ArgumentCaptor.forClass(OrderRollup.class);
+        verify(rollupRepository, times(5)).addToBucket(buckets.capture());
+        List<OrderRollup> written = buckets.getAllValues();
+        assertEquals(List.of("store-1 HOUR 2025-03-01T09:00:00Z", "store-1 HOUR 2025-03-01T14:00:00Z",
+                        "store-1 DAY 2025-03-01T00:00:00Z", "store-2 HOUR 2025-03-01T14:00:00Z",
+                        "store-2 DAY 2025-03-01T00:00:00Z"),
+                written.stream().map(r -> r.getStoreID() + " " + r.getGranularity() + " "
+                        + r.getBucketStart().toInstant()).toList());
+        assertEquals(2, written.get(0).getOrderCount());
+        assertEquals(0, new BigDecimal("27.00").compareTo(written.get(0).getTotalCost()));
+        assertEquals(3, written.get(2).getOrderCount());
+        assertEquals(0, new BigDecimal("37.00").compareTo(written.get(2).getTotalCost()));
+        verify(deltaRepository).deleteByIds(List.of(1L, 2L, 3L, 4L));
+    }
+
+    @Test
+    void failedFlushLeavesDeltasForTheNextOne() {
+        when(deltaRepository.lockNext(anyInt())).thenReturn(List.of(delta(1L, "store-1", MORNING, 1, "5.00")));
+        when(rollupRepository.addToBucket(any())).thenThrow(new IllegalStateException("database unavailable"));
+
+        orderRollups.flush();
+
+        verify(deltaRepository, never()).deleteByIds(any());
+    }
+
+    @Test
+    void rollupsForTheStoreOrTheTotalAreReadFromTheirOwnQueries() {
+        Instant from = Instant.parse("2025-03-01T09:30:00Z");
+        Instant to = Instant.parse("2025-03-02T00:00:00Z");
+
+        orderRollups.getBuckets("store-1", ERollupGranularity.HOUR, from, to);
+        orderRollups.getBuckets(null, ERollupGranularity.DAY, from, to);
+
+        verify(rollupRepository).findBuckets("store-1", ERollupGranularity.HOUR,
+                Date.from(Instant.parse("2025-03-01T09:00:00Z")), Date.from(to));
+        verify(rollupRepository).findTotals(ERollupGranularity.DAY,
+                Date.from(Instant.parse("2025-03-01T00:00:00Z")), Date.from(to));
+    }
+
+    private static OrderRollupDelta delta(Long id, String storeId, Instant created, long orders, String totalCost) {
+        return OrderRollupDelta.builder()
+                .id(id)
+                .storeID(storeId)
+                .orderCreated(Date.from(created))
+                .orderCount(orders)
+                .totalCost(new BigDecimal(totalCost))
+                .deliveryFees(BigDecimal.ZERO)
+                .cancelledTotalCost(BigDecimal.ZERO)
+                .completedTotalCost(BigDecimal.ZERO)
+                .build();
+    }
+
+    private static Order order(String storeId, Instant created, String totalCost, String deliveryFee, int quantity) {
+        return Order.builder()
+                .orderId(storeId + "-" + created)
+                .storeID(storeId)
+                .status(EStatus.SUBMITTED)
+                .totalCost(new BigDecimal(totalCost))
+                .deliveryFee(new BigDecimal(deliveryFee))
+                .crtdTimeStamp(Date.from(created))
+                .orderItems(List.of(OrderItem.builder().quantity(quantity).build()))
+                .build();
+    }
+}
@@ -0,0 +1,208 @@
+package com.siopa.orders.services;
+
+import com.siopa.orders.dto.CursorPage;
+import com.siopa.orders.dto.OrderRequest;
+import com.siopa.orders.dto.OrderSummary;
+import com.siopa.orders.exceptions.UnknownFieldException;
+import com.siopa.orders.models.EStatus;
+import com.siopa.orders.models.Order;
+import com.siopa.orders.models.OrderItem;
+import com.siopa.orders.repositories.OrderArchiveRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntFunction;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Tests that the list queries of {@link OrderService} issue a constant number of SQL statements,
+ * independent of how many orders and items they return.
+ */
+@DataJpaTest
+@Import({OrderService.class, OrderCache.class, OrderStatusCounters.class, CustomerHistoryCache.class,
+        OrderMetrics.class, OrderArchiveRepository.class, SimpleMeterRegistry.class})
+// the change feed holds back changes younger than the safety lag; a negative lag shows them at once
+@TestPropertySource(properties = "orders.changes.safety-lag-ms=-1000")
+class OrderServiceQueryTest {
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 10, 60})
+    void pageOfOrdersUsesTwoStatements(int orderCount) {
+        persistOrders(orderCount, EStatus.SUBMITTED);
+
+        statistics.clear();
+        CursorPage<Order> page = orderService.getOrders(null, orderCount);
+        int itemCount = page.getItems().stream().mapToInt(order -> order.getOrderItems().size()).sum();
+
+        assertEquals(orderCount, page.getItems().size());
+        assertEquals(orderCount * 3, itemCount);
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 10, 60})
+    void ordersByStatusUseOneStatement(int orderCount) {
+        persistOrders(orderCount, EStatus.PREPARING);
+
+        statistics.clear();
+        List<Order> orders = orderService.getOrdersByStatus(EStatus.PREPARING);
+        int itemCount = orders.stream().mapToInt(order -> order.getOrderItems().size()).sum();
+
+        assertEquals(orderCount, orders.size());
+        assertEquals(orderCount * 3, itemCount);
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void sparseFieldsSelectOnlyRequestedColumns() {
+        persistOrders(12, EStatus.PREPARING);
+
+        statistics.clear();
+        CursorPage<Map<String, Object>> page = orderService.getOrderFields(List.of("status", "totalCost"), null, 10);
+        List<Map<String, Object>> byStatus = orderService.getOrderFieldsByStatus(EStatus.PREPARING, List.of("storeID"));
+
+        assertEquals(10, page.getItems().size());
+        assertEquals(List.of("orderId", "status", "totalCost"), List.copyOf(page.getItems().get(0).keySet()));
+        assertEquals(page.getItems().get(9).get("orderId"), page.getNextCursor());
+        assertEquals(12, byStatus.size());
+        assertEquals(2, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+        assertThrows(UnknownFieldException.class, () -> orderService.getOrderFields(List.of("orderItems"), null, 10));
+    }
+
+    @Test
+    void summariesUseOneStatementEachWithoutLoadingEntities() {
+        persistOrders(12, EStatus.PREPARING);
+        persistOrders(3, EStatus.SUBMITTED);
+
+        statistics.clear();
+        CursorPage<OrderSummary> firstPage = orderService.getOrderSummaries(null, 10);
+        CursorPage<OrderSummary> secondPage = orderService.getOrderSummaries(firstPage.getNextCursor(), 10);
+        List<OrderSummary> byStatus = orderService.getOrderSummariesByStatus(EStatus.PREPARING);
+
+        assertEquals(10, firstPage.getItems().size());
+        assertEquals(firstPage.getItems().get(9).getOrderId(), firstPage.getNextCursor());
+        assertEquals(5, secondPage.getItems().size());
+        assertNull(secondPage.getNextCursor());
+        assertEquals(12, byStatus.size());
+        OrderSummary summary = byStatus.get(0);
+        assertEquals(EStatus.PREPARING, summary.getStatus());
+        assertNotNull(summary.getStoreID());
+        assertNotNull(summary.getTotalCost());
+        assertNotNull(summary.getCrtdTimeStamp());
+        assertEquals(3, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    void streamedOrdersIncludeTheirItems() {
+        persistOrders(5, EStatus.SUBMITTED);
+
+        List<Integer> itemCounts = new ArrayList<>();
+        statistics.clear();
+        orderService.streamAllOrders(order -> itemCounts.add(order.getOrderItems().size()));
+
+        assertEquals(List.of(3, 3, 3, 3, 3), itemCounts);
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void customerHistoryPagesWithoutGapsOrRepeats() {
+        persistOrders(25, EStatus.SUBMITTED, i -> "customer");
+        persistOrders(5, EStatus.SUBMITTED, i -> "other");
+
+        List<String> orderIds = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        statistics.clear();
+        do {
+            CursorPage<OrderSummary> page = orderService.getCustomerOrders("customer", cursor, 10);
+            page.getItems().forEach(summary -> orderIds.add(summary.getOrderId()));
+            cursor = page.getNextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertEquals(25, orderIds.size());
+        assertEquals(25, new HashSet<>(orderIds).size());
+        assertEquals(pages, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void changeFeedResumesFromItsCursor() {
+        persistOrders(25, EStatus.SUBMITTED);
+
+        List<String> orderIds = new ArrayList<>();
+        CursorPage<Order> page = orderService.getOrderChanges(null, 10);
+        while (!page.getItems().isEmpty()) {
+            page.getItems().forEach(order -> orderIds.add(order.getOrderId()));
+            page = orderService.getOrderChanges(page.getNextCursor(), 10);
+        }
+
+        assertEquals(25, new HashSet<>(orderIds).size());
+        assertNotNull(page.getNextCursor());
+    }
+
+    private void persistOrders(int count, EStatus status) {
+        persistOrders(count, status, i -> "customer-" + i);
+    }
+
+    private void persistOrders(int count, EStatus status, IntFunction<String> customerId) {
+        for (int i = 0; i < count; i++) {
+            Order order = OrderMapper.toOrder(new OrderRequest());
+            order.setCustomerID(customerId.apply(i));
+            order.setCustomerEmail("customer" + i + "@example.com");
+            order.setStoreID("store");
+            order.setTotalItemCost(BigDecimal.TEN);
+            order.setTotalCost(BigDecimal.TEN);
+            order.setStatus(status);
+            for (int j = 0; j < 3; j++) {
+                order.getOrderItems().add(OrderItem.builder()
+                        .productId("product-" + j)
+                        .productName("Product " + j)
+                        .quantity(1)
+                        .price(BigDecimal.ONE)
+                        .order(order)
+                        .build());
+            }
+            entityManager.persist(order);
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+}
@@ -0,0 +1,125 @@
+package com.siopa.orders.services;
+
+import com.siopa.orders.dto.OrderRequest;
+import com.siopa.orders.dto.StatusUpdateResult;
+import com.siopa.orders.dto.StatusUpdateResult.Outcome;
+import com.siopa.orders.exceptions.InvalidStatusTransitionException;
+import com.siopa.orders.models.EStatus;
+import com.siopa.orders.models.Order;
+import com.siopa.orders.repositories.OrderArchiveRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for status transitions applied by {@link OrderService#updateOrderStatus}.
+ */
+@DataJpaTest
+@Import({OrderService.class, OrderCache.class, OrderStatusCounters.class, CustomerHistoryCache.class,
+        OrderMetrics.class, OrderArchiveRepository.class, SimpleMeterRegistry.class})
+class OrderStatusTransitionTest {
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Test
+    void allowedTransitionUpdatesStatusAndKeepsPreviousStatus() {
+        String orderId = persistOrder(EStatus.SUBMITTED);
+
+        Order order = orderService.updateOrderStatus(orderId, EStatus.PREPARING);
+
+        assertEquals(EStatus.PREPARING, order.getStatus());
+        assertEquals(EStatus.SUBMITTED, order.getPreviousStatus());
+    }
+
+    @Test
+    void disallowedTransitionIsRejectedWithoutChangingTheOrder() {
+        String orderId = persistOrder(EStatus.COMPLETE);
+
+        InvalidStatusTransitionException e = assertThrows(InvalidStatusTransitionException.class,
+                () -> orderService.updateOrderStatus(orderId, EStatus.SUBMITTED));
+
+        assertEquals(EStatus.COMPLETE, e.getCurrentStatus());
+        assertEquals(EStatus.COMPLETE, entityManager.find(Order.class, orderId).getStatus());
+    }
+
+    @Test
+    void missingOrderIsReportedAsNotFound() {
+        RuntimeException e = assertThrows(RuntimeException.class,
+                () -> orderService.updateOrderStatus("missing", EStatus.PREPARING));
+
+        assertEquals("Order not found", e.getMessage());
+    }
+
+    @Test
+    void bulkUpdateReportsAnOutcomePerOrder() {
+        String preparing = persistOrder(EStatus.PREPARING);
+        String submitted = persistOrder(EStatus.SUBMITTED);
+
+        List<StatusUpdateResult> results = orderService.updateOrderStatuses(
+                List.of(preparing, submitted, "missing", preparing), EStatus.OUT_FOR_DELIVERY);
+
+        assertEquals(List.of(
+                new StatusUpdateResult(preparing, Outcome.UPDATED, EStatus.PREPARING, EStatus.OUT_FOR_DELIVERY),
+                new StatusUpdateResult(submitted, Outcome.INVALID_TRANSITION, EStatus.SUBMITTED, EStatus.SUBMITTED),
+                new StatusUpdateResult("missing", Outcome.NOT_FOUND, null, null)), results);
+        assertEquals(EStatus.OUT_FOR_DELIVERY, entityManager.find(Order.class, preparing).getStatus());
+        assertEquals(EStatus.SUBMITTED, entityManager.find(Order.class, submitted).getStatus());
+    }
+
+    @Test
+    void statusChangeBatchWalksEachOrderThroughItsStatuses() {
+        String delivered = persistOrder(EStatus.PREPARING);
+        String collected = persistOrder(EStatus.PREPARING);
+        String cancelled = persistOrder(EStatus.COMPLETE);
+
+        List<StatusUpdateResult> results = orderService.applyStatusChanges(Map.of(
+                delivered, List.of(EStatus.OUT_FOR_DELIVERY, EStatus.DELIVERED),
+                collected, List.of(EStatus.READY_FOR_COLLECTION),
+                cancelled, List.of(EStatus.CANCELLED)));
+
+        assertEquals(4, results.size());
+        assertEquals(1, results.stream().filter(result -> result.getOutcome() == Outcome.INVALID_TRANSITION).count());
+        assertEquals(EStatus.DELIVERED, entityManager.find(Order.class, delivered).getStatus());
+        assertEquals(EStatus.OUT_FOR_DELIVERY, entityManager.find(Order.class, delivered).getPreviousStatus());
+        assertEquals(EStatus.READY_FOR_COLLECTION, entityManager.find(Order.class, collected).getStatus());
+        assertEquals(EStatus.COMPLETE, entityManager.find(Order.class, cancelled).getStatus());
+    }
+
+    @Test
+    void transitionsAreDefinedConsistently() {
+        for (EStatus from : EStatus.values()) {
+            for (EStatus to : EStatus.values()) {
+                assertEquals(from.canTransitionTo(to), to.previousStatuses().contains(from));
+            }
+        }
+        assertTrue(EStatus.CANCELLED.nextStatuses().isEmpty());
+        assertTrue(EStatus.COMPLETE.nextStatuses().isEmpty());
+    }
+
+    private String persistOrder(EStatus status) {
+        Order order = OrderMapper.toOrder(new OrderRequest());
+        order.setCustomerID("customer");
+        order.setCustomerEmail("customer@example.com");
+        order.setStoreID("store");
+        order.setTotalItemCost(BigDecimal.TEN);
+        order.setTotalCost(BigDecimal.TEN);
+        order.setStatus(status);
+        String orderId = entityManager.persistAndGetId(order, String.class);
+        entityManager.flush();
+        entityManager.clear();
+        return orderId;
+    }
+}
@@ -0,0 +1,165 @@
+package com.siopa.orders.services;
+
+import com.siopa.orders.events.OrderEvent;
+import com.siopa.orders.models.EStatus;
+import com.siopa.orders.models.Order;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for {@link OrderStreamHub} against stand-in emitters that record, or block on, every send.
+ */
+class OrderStreamHubTest {
+
+    private final CountDownLatch unblock = new CountDownLatch(1);
+    private final List<OrderStreamHub> hubs = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        unblock.countDown();
+        hubs.forEach(OrderStreamHub::shutdown);
+    }
+
+    @Test
+    void pushesChangesToTheOrderAndItsStore() throws InterruptedException {
+        OrderStreamHub hub = hub(8, 1000, false);
+        StubEmitter store = (StubEmitter) hub.subscribeToStore("store-1");
+        StubEmitter order = (StubEmitter) hub.subscribeToOrder("order-1");
+        StubEmitter otherStore = (StubEmitter) hub.subscribeToStore("store-2");
+
+        hub.onOrderEvent(OrderEvent.created(order("order-1")));
+
+        assertNotNull(store.sent.poll(5, TimeUnit.SECONDS));
+        assertNotNull(order.sent.poll(5, TimeUnit.SECONDS));
+        assertNull(otherStore.sent.poll(100, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void evictsASubscriberOnceItsBufferOverflows() throws InterruptedException {
+        OrderStreamHub hub = hub(1, 60000, true);
+        StubEmitter slow = (StubEmitter) hub.subscribeToStore("store-1");
+
+        for (int i = 0; i < 10; i++) {
+            hub.onOrderEvent(OrderEvent.created(order("order-" + i)));
+        }
+
+        assertEquals(0, hub.storeSubscriberCount("store-1"));
+        assertEquals(1, slow.completions.get());
+        unblock.countDown();
+        hub.onOrderEvent(OrderEvent.created(order("order-late")));
+        assertEquals(1, slow.completions.get());
+    }
+
+    @Test
+    void evictsASubscriberWhoseSendTimesOut() throws InterruptedException {
+        OrderStreamHub hub = hub(8, 100, true);
+        StubEmitter stuck = (StubEmitter) hub.subscribeToStore("store-1");
+
+        hub.onOrderEvent(OrderEvent.created(order("order-1")));
+
+        assertInstanceOf(TimeoutException.class, stuck.failures.poll(5, TimeUnit.SECONDS));
+        assertEquals(0, hub.storeSubscriberCount("store-1"));
+    }
+
+    @Test
+    void senderThreadsStayBoundedWhenWritesNeverReturn() throws InterruptedException {
+        OrderStreamHub hub = new OrderStreamHub(4, 8, 60000, 100, 2, 2) {
+            @Override
+            SseEmitter createEmitter(long timeoutMs) {
+                return new StubEmitter(unblock, true);
+            }
+        };
+        hubs.add(hub);
+        for (int i = 0; i < 20; i++) {
+            hub.subscribeToStore("store-1");
+        }
+
+        hub.onOrderEvent(OrderEvent.created(order("order-1")));
+
+        long deadline = System.currentTimeMillis() + 5000;
+        while (hub.storeSubscriberCount("store-1") > 0 && System.currentTimeMillis() < deadline) {
+            assertTrue(hub.senderThreadCount() <= 2);
+            Thread.sleep(10);
+        }
+        assertEquals(0, hub.storeSubscriberCount("store-1"));
+        assertTrue(hub.senderThreadCount() <= 2);
+    }
+
+    private OrderStreamHub hub(int bufferSize, long sendTimeoutMs, boolean blockSends) {
+        OrderStreamHub hub = new OrderStreamHub(1, bufferSize, 60000, sendTimeoutMs, 4, 16) {
+            @Override
+            SseEmitter createEmitter(long timeoutMs) {
+                return new StubEmitter(blockSends ? unblock : null, false);
+            }
+        };
+        hubs.add(hub);
+        return hub;
+    }
+
+    private static Order order(String orderId) {
+        return Order.builder()
+                .orderId(orderId)
+                .storeID("store-1")
+                .status(EStatus.SUBMITTED)
+                .build();
+    }
+
+    /**
+     * Emitter that records what is sent to it, optionally blocking every send like a client that stopped reading.
+     * A send that ignores interrupts stands in for a socket write that cancellation cannot unblock.
+     */
+    private static class StubEmitter extends SseEmitter {
+
+        private final CountDownLatch unblock;
+        private final boolean ignoreInterrupts;
+        private final BlockingQueue<SseEventBuilder> sent = new LinkedBlockingQueue<>();
+        private final BlockingQueue<Throwable> failures = new LinkedBlockingQueue<>();
+        private final AtomicInteger completions = new AtomicInteger();
+
+        private StubEmitter(CountDownLatch unblock, boolean ignoreInterrupts) {
+            this.unblock = unblock;
+            this.ignoreInterrupts = ignoreInterrupts;
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            while (unblock != null && unblock.getCount() > 0) {
+                try {
+                    unblock.await();
+                } catch (InterruptedException e) {
+                    if (!ignoreInterrupts) {
+                        throw new IOException(e);
+                    }
+                }
+            }
+            sent.add(builder);
+        }
+
+        @Override
+        public void complete() {
+            completions.incrementAndGet();
+        }
+
+        @Override
+        public void completeWithError(Throwable ex) {
+            failures.add(ex);
+        }
+    }
+}